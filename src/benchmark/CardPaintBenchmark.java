@@ -0,0 +1,176 @@
+package benchmark;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import card.Card;
+import card.StackOfCards;
+import card.Suit;
+import card.Tableau;
+
+/**
+ * Measures how long it takes to paint a board of cards. Two decks are dealt into
+ * ten tableaux, as in a game of Spider Solitaire in progress: all but the top
+ * six cards of each tableau are face down. Each frame paints all 104 cards into
+ * an image in one of three ways:
+ * <ul>
+ * <li> with a copy of the former drawing code, which drew the shapes, created
+ * 		two fonts, laid out the value, and drew three suit images for every
+ * 		card each time it was drawn,
+ * <li> with {@link Card#draw} for each card, which copies the whole card from
+ * 		a picture drawn once per card width, and
+ * <li> with {@link Tableau#draw}, which only copies the strip of each card that
+ * 		is not covered, and the face down cards as one run.
+ * </ul>
+ * The average time per frame of each is printed.
+ * <p>
+ * The number of measured frames and the card width may be given as the first
+ * and second arguments. Runs headless.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class CardPaintBenchmark {
+	/** The number of frames painted before any time is measured.			*/
+	private static final int WARM_UP_FRAMES = 500;
+
+	/** The number of face up cards at the top of each tableau.				*/
+	private static final int FACE_UP = 6;
+
+	/** The ways of painting the cards.										*/
+	private static final int FORMER = 0, CARDS = 1, TABLEAUX = 2;
+
+	/**
+	 * Runs the benchmark.
+	 * @param args The number of frames and the card width, both optional.
+	 */
+	public static void main(String[] args){
+		System.setProperty("java.awt.headless", "true");
+		int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int cardWidth = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+		Tableau[] tableaux = deal(cardWidth);
+		BufferedImage image = new BufferedImage(12 * (cardWidth + 10),
+				cardWidth * 12, BufferedImage.TYPE_INT_RGB);
+		Graphics2D pane = image.createGraphics();
+
+		long[] times = new long[3];
+		for(int way = FORMER; way <= TABLEAUX; way++){
+			paint(pane, tableaux, cardWidth, way, WARM_UP_FRAMES);
+			long start = System.nanoTime();
+			paint(pane, tableaux, cardWidth, way, frames);
+			times[way] = System.nanoTime() - start;
+		}
+		pane.dispose();
+
+		System.out.printf("104 cards %d px wide, %d frames%n", cardWidth, frames);
+		System.out.printf("Former drawing: %8.1f us/frame%n", 
+				times[FORMER] / 1e3 / frames);
+		System.out.printf("Card.draw:      %8.1f us/frame (%.2fx)%n", 
+				times[CARDS] / 1e3 / frames, times[FORMER] * 1.0 / times[CARDS]);
+		System.out.printf("Tableau.draw:   %8.1f us/frame (%.2fx)%n", 
+				times[TABLEAUX] / 1e3 / frames, 
+				times[FORMER] * 1.0 / times[TABLEAUX]);
+	}
+
+	/**
+	 * Deals two decks into ten tableaux with all but the top cards face down.
+	 */
+	private static Tableau[] deal(int cardWidth){
+		StackOfCards deck = new StackOfCards();
+		deck.fillBySuit();
+		deck.fillBySuit();
+		deck.shuffle();
+
+		Tableau[] tableaux = new Tableau[10];
+		for(int i = 0; i < tableaux.length; i++){
+			tableaux[i] = new Tableau((cardWidth + 10) * (i + 1), cardWidth,
+					cardWidth, cardWidth/2); //As in Spider.
+		}
+		//Each card is turned by its tableau as it is dealt.
+		int cards = deck.size();
+		for(int i = 0; !deck.isEmpty(); i++){
+			int t = i % tableaux.length;
+			int dealt = (cards - t + tableaux.length - 1) / tableaux.length;
+			boolean hidden = tableaux[t].size() < dealt - FACE_UP;
+			tableaux[t].push(deck.pop());
+			tableaux[t].setTopHidden(hidden);
+		}
+		return tableaux;
+	}
+
+	/**
+	 * Paints the given number of frames.
+	 * @param way How the cards are painted: FORMER, CARDS, or TABLEAUX.
+	 */
+	private static void paint(Graphics2D pane, Tableau[] tableaux, int cardWidth,
+			int way, int frames){
+		for(int f = 0; f < frames; f++){
+			pane.setColor(new Color(0, 180, 0));
+			pane.fillRect(0, 0, 12 * (cardWidth + 10), cardWidth * 12);
+			for(Tableau tableau : tableaux){
+				if(way == TABLEAUX){
+					tableau.draw(pane);
+				} else {
+					for(int i = 0; i < tableau.size(); i++){
+						Card card = tableau.get(i);
+						int x = tableau.cardX(i), y = tableau.cardY(i);
+						boolean hidden = tableau.isHidden(i);
+						if(way == CARDS){
+							card.draw(pane, x, y, cardWidth, hidden);
+						} else {
+							drawWithNewFonts(pane, card, x, y, cardWidth, hidden);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draws a card as {@link Card#draw} did before the fonts and pictures of
+	 * cards were cached.
+	 */
+	private static void drawWithNewFonts(Graphics2D pane, Card card, int x,
+			int y, int width, boolean hidden){
+		int height = width * 3/2;
+		pane.setColor(Color.WHITE);
+		pane.fillRoundRect(x - width/2, y - height/2,
+				width, height, width/10, height/10);
+		pane.setColor(Color.BLACK);
+		pane.drawRoundRect(x - width/2, y - height/2,
+				width, height, width/10, height/10);
+		if(hidden){ //Then the back is drawn.
+			pane.setColor(new Color(0, 0, 150));
+			pane.fillRoundRect(x - width/2 + width/20, y - height/2 + height/20, 
+					width*9/10, height*9/10, width/10, height/10);
+			return;
+		}
+
+		Suit suit = card.getSuit();
+		String value = valueToString(card.getValue());
+		pane.setColor(suit.getColor());
+		pane.setFont(new Font("Monospaced", Font.BOLD, width/4));
+		pane.drawString(value, x - width*2/5, y - height/3);
+		pane.setFont(new Font("Monospaced", Font.BOLD, -width/4));
+		pane.drawString(value, x + width*2/5, y + height/3);
+
+		suit.draw(pane, x, y, width/3);
+		suit.draw(pane, x - width/3 + 2, y - height/5, width/5);
+		suit.draw(pane, x + width/3 - 2, y + height/5, -width/5);
+	}
+
+	/**
+	 * Returns a card's value as text.
+	 */
+	private static String valueToString(int value){
+		switch(value){
+		case 1: return "A";
+		case 11: return "J";
+		case 12: return "Q";
+		case 13: return "K";
+		default: return Integer.toString(value);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import card.StackOfCards;
+import card.Tableau;
+import dataStructures.Stack;
+
+/**
+ * Runs the operations that used to recurse once per card on stacks of
+ * {@value #SIZE} cards, far more than any game deals, to show that none of
+ * them overflows the thread's stack and that each gives the same cards as
+ * before. The stack of cards is filled by {@link StackOfCards#fillBySuit()},
+ * with every third card hidden, and then:
+ * <ul>
+ * <li> reversed, and reversed back, as is the linked {@link Stack},
+ * <li> drawn, both as a pile and as a {@link Tableau}, whose cards are drawn
+ * 		as strips, and
+ * <li> shuffled, twice from the same seed.
+ * </ul>
+ * After each, the encoded cards (see {@link StackOfCards#toBytes()}) are
+ * compared with what is expected. If a check fails or a
+ * {@link StackOverflowError} is thrown, the check is named and the program
+ * exits with status 1. Runs headless.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class LargeStackCheck {
+	/** The number of cards in the stacks.									*/
+	private static final int SIZE = 10000;
+
+	/** The width of the cards when they are drawn.							*/
+	private static final int CARD_WIDTH = 60;
+
+	/**
+	 * Runs the checks.
+	 * @param args Unused.
+	 */
+	public static void main(String[] args){
+		System.setProperty("java.awt.headless", "true");
+		check("reverse", new Runnable(){
+			public void run(){
+				reverse();
+			}
+		});
+		check("reverse linked stack", new Runnable(){
+			public void run(){
+				reverseLinked();
+			}
+		});
+		check("draw", new Runnable(){
+			public void run(){
+				draw();
+			}
+		});
+		check("shuffle", new Runnable(){
+			public void run(){
+				shuffle();
+			}
+		});
+	}
+
+	/**
+	 * Runs one check and prints how long it took, or exits with status 1 if it
+	 * fails or overflows the stack.
+	 */
+	private static void check(String name, Runnable check){
+		long start = System.nanoTime();
+		try {
+			check.run();
+		} catch(StackOverflowError e){
+			fail(name, "StackOverflowError");
+		} catch(IllegalStateException e){
+			fail(name, e.getMessage());
+		}
+		System.out.printf("%-22s ok, %6.2f ms%n", name,
+				(System.nanoTime() - start) / 1e6);
+	}
+
+	/**
+	 * Prints which check failed and why, and exits with status 1.
+	 */
+	private static void fail(String name, String reason){
+		System.err.println(name + " FAILED: " + reason);
+		System.exit(1);
+	}
+
+	/**
+	 * Reverses the stack of cards, which must then hold its cards in the
+	 * opposite order, and reverses it back.
+	 */
+	private static void reverse(){
+		StackOfCards stack = largeStack();
+		byte[] before = stack.toBytes();
+		stack.reverse();
+		byte[] after = stack.toBytes();
+		for(int i = 0; i < SIZE; i++){
+			expect(after[i] == before[SIZE - 1 - i], "card " + i + " is misplaced");
+		}
+		stack.reverse();
+		expect(Arrays.equals(stack.toBytes(), before),
+				"reversing twice changed the cards");
+	}
+
+	/**
+	 * Reverses, copies, and appends linked stacks of numbers, which must then
+	 * hold their numbers in the expected order.
+	 */
+	private static void reverseLinked(){
+		Stack<Integer> stack = new Stack<Integer>();
+		for(int i = 0; i < SIZE; i++){
+			stack.push(i);
+		}
+		Stack<Integer> copy = stack.reverseCopy();	//0 on top.
+		copy.appendStack(stack);					//SIZE - 1 on top.
+		stack.reverse();							//0 on top.
+
+		int expected = 0;
+		for(int value : stack){ //From the top down.
+			expect(value == expected++, "the reversed stack is out of order");
+		}
+		//From the top down, the appended stack counts down to 0, then the
+		//reversed copy counts back up.
+		int k = 0;
+		for(int value : copy){
+			expected = k < SIZE ? SIZE - 1 - k : k - SIZE;
+			expect(value == expected, "the appended copy is out of order");
+			k++;
+		}
+		expect(k == 2 * SIZE, "the appended copy lost elements");
+	}
+
+	/**
+	 * Draws the cards as a pile offset in both directions and as a tableau.
+	 * Their snapshots must hold the cards of the stacks.
+	 */
+	private static void draw(){
+		StackOfCards pile = new StackOfCards(CARD_WIDTH, CARD_WIDTH,
+				CARD_WIDTH, 1, 1);
+		Tableau tableau = new Tableau(CARD_WIDTH, CARD_WIDTH, CARD_WIDTH, 1);
+		StackOfCards cards = largeStack();
+		pile.appendStack(cards);
+		tableau.appendStack(cards);
+
+		BufferedImage image = new BufferedImage(400, 400,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D pane = image.createGraphics();
+		pile.draw(pane);
+		tableau.draw(pane);
+		pane.dispose();
+
+		byte[] expected = cards.toBytes();
+		for(StackOfCards stack : new StackOfCards[] {pile, tableau}){
+			byte[] drawn = new byte[stack.snapshot().size()];
+			for(int i = 0; i < drawn.length; i++){
+				drawn[i] = stack.snapshot().codeAt(i);
+			}
+			expect(Arrays.equals(drawn, expected),
+					"the drawn cards differ from the stack's");
+		}
+	}
+
+	/**
+	 * Shuffles the stack of cards twice from the same seed, which must give the
+	 * same order both times and keep every card.
+	 */
+	private static void shuffle(){
+		StackOfCards first = largeStack(), second = largeStack();
+		byte[] before = first.toBytes();
+		first.shuffle(new SplittableRandom(52));
+		second.shuffle(new SplittableRandom(52));
+		byte[] after = first.toBytes();
+
+		expect(Arrays.equals(after, second.toBytes()),
+				"the same seed gave two orders");
+		expect(!Arrays.equals(after, before), "the cards were not moved");
+		Arrays.sort(before);
+		Arrays.sort(after);
+		expect(Arrays.equals(after, before), "cards were lost or duplicated");
+	}
+
+	/**
+	 * Returns a stack of {@value #SIZE} cards filled by suit, one deck after
+	 * another, with every third card hidden.
+	 */
+	private static StackOfCards largeStack(){
+		StackOfCards stack = new StackOfCards();
+		StackOfCards deck = new StackOfCards();
+		while(stack.size() < SIZE){
+			deck.clear();
+			deck.fillBySuit();
+			while(!deck.isEmpty() && stack.size() < SIZE){
+				stack.push(deck.pop());
+				stack.setTopHidden(stack.size() % 3 == 0);
+			}
+		}
+		return stack;
+	}
+
+	/**
+	 * Throws an {@link IllegalStateException} with the given message if the
+	 * condition does not hold.
+	 */
+	private static void expect(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
\ No newline at end of file
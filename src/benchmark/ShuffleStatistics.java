@@ -0,0 +1,215 @@
+package benchmark;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import card.Card;
+import card.StackOfCards;
+
+/**
+ * Measures how uniform {@link StackOfCards#shuffle(RandomGenerator)} is and how
+ * fast it runs. One worker thread per core repeatedly shuffles a deck filled by
+ * {@link StackOfCards#fillBySuit()} and counts:
+ * <ul>
+ * <li> how often each card lands in each position, and
+ * <li> how often each card lies directly on top of each other card.
+ * </ul>
+ * Every second, the counts of all workers are compared with the counts expected
+ * of a uniform shuffle with chi-square statistics, which are printed next to the
+ * number of shuffles per second. For a uniform shuffle, each statistic divided
+ * by its degrees of freedom should approach 1 and its z-score should stay
+ * roughly between -3 and 3.
+ * <p>
+ * Arguments (all optional): the number of shuffles (default 100,000,000), the
+ * number of threads (default: one per core), and the name of a
+ * {@link RandomGenerator} algorithm (default "SplittableRandom").
+ *
+ * @author Warren Godone-Maresca
+ */
+public class ShuffleStatistics {
+	/** The number of cards in a deck.										*/
+	private static final int CARDS = Card.NUM_OF_IDS;
+
+	/** The number of shuffles a worker does before it adds its counts to the
+	 *  shared counts.														*/
+	private static final int BATCH = 100000;
+
+	/** Guards the shared counts so that a report never sees half of a batch.	*/
+	private static final Object LOCK = new Object();
+
+	/** The number of times card i landed in position j, at index i*52 + j.	*/
+	private static final long[] positions = new long[CARDS * CARDS];
+
+	/** The number of times card j lay on top of card i, at index i*52 + j.	*/
+	private static final long[] pairs = new long[CARDS * CARDS];
+
+	/** The number of shuffles counted so far.								*/
+	private static long shuffles;
+
+	/**
+	 * Runs the harness.
+	 * @param args The number of shuffles, the number of threads, and the name of
+	 * 			   the random generator algorithm, all optional.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		final long total = args.length > 0 ? Long.parseLong(args[0]) : 100000000L;
+		int threads = args.length > 1 ? Integer.parseInt(args[1])
+				: Runtime.getRuntime().availableProcessors();
+		String algorithm = args.length > 2 ? args[2] : "SplittableRandom";
+
+		System.out.printf("%d shuffles on %d threads with %s%n",
+				total, threads, algorithm);
+		System.out.printf("%8s %12s %14s %12s %14s %12s%n", "seconds", "shuffles",
+				"shuffles/s", "position z", "position x2/df", "pair z");
+
+		RandomGeneratorFactory<RandomGenerator> factory =
+				RandomGeneratorFactory.of(algorithm);
+		long seed = System.nanoTime();
+		Thread[] workers = new Thread[threads];
+		for(int t = 0; t < threads; t++){
+			//Each worker gets its own generator, so that they do not contend.
+			final RandomGenerator random =
+					factory.create(seed + t * 0x9E3779B97F4A7C15L);
+			final long share = total / threads + (t < total % threads ? 1 : 0);
+			workers[t] = new Thread(new Runnable(){
+				public void run(){
+					shuffle(random, share);
+				}
+			});
+			workers[t].start();
+		}
+
+		long start = System.nanoTime();
+		long lastTime = start, lastCount = 0;
+		while(isAlive(workers)){
+			Thread.sleep(1000);
+			synchronized(LOCK){
+				long now = System.nanoTime();
+				report(now - start, (shuffles - lastCount) * 1e9 / (now - lastTime));
+				lastTime = now;
+				lastCount = shuffles;
+			}
+		}
+		synchronized(LOCK){ //The overall rate.
+			long elapsed = System.nanoTime() - start;
+			report(elapsed, shuffles * 1e9 / elapsed);
+		}
+	}
+
+	/**
+	 * Shuffles a deck the given number of times and adds the counts to the
+	 * shared counts after each batch.
+	 */
+	private static void shuffle(RandomGenerator random, long count){
+		StackOfCards deck = new StackOfCards();
+		deck.fillBySuit();
+		Card[] bySuit = new Card[CARDS]; //The cards in the order of fillBySuit.
+		for(int i = 0; i < CARDS; i++){
+			bySuit[i] = deck.get(i);
+		}
+
+		long[] localPositions = new long[CARDS * CARDS];
+		long[] localPairs = new long[CARDS * CARDS];
+		while(count > 0){
+			int batch = (int)Math.min(BATCH, count);
+			for(int s = 0; s < batch; s++){
+				deck.clear(); //The deck is put back in order without allocating.
+				for(Card card : bySuit){
+					deck.push(card);
+				}
+				deck.shuffle(random);
+
+				int below = deck.get(0).getId();
+				localPositions[below * CARDS]++;
+				for(int i = 1; i < CARDS; i++){
+					int id = deck.get(i).getId();
+					localPositions[id * CARDS + i]++;
+					localPairs[below * CARDS + id]++;
+					below = id;
+				}
+			}
+			synchronized(LOCK){
+				flush(localPositions, positions);
+				flush(localPairs, pairs);
+				shuffles += batch;
+			}
+			count -= batch;
+		}
+	}
+
+	/**
+	 * Adds the local counts to the shared counts and zeroes the local counts.
+	 */
+	private static void flush(long[] local, long[] shared){
+		for(int i = 0; i < local.length; i++){
+			shared[i] += local[i];
+			local[i] = 0;
+		}
+	}
+
+	/**
+	 * Prints the rate and the statistics of the counts so far. Must be called
+	 * while holding the lock.
+	 */
+	private static void report(long elapsedNanos, double rate){
+		long count = shuffles;
+		if(count == 0){
+			return;
+		}
+		//Each card is equally likely to be in each position.
+		double positionChi = chiSquare(positions, count / (double)CARDS, false);
+		int positionDf = (CARDS - 1) * (CARDS - 1);
+
+		//Each card is equally likely to be on top of each other card. There are
+		//51 adjacent pairs per shuffle and 52 * 51 ordered pairs.
+		double pairChi = chiSquare(pairs, count / (double)CARDS, true);
+		int pairDf = CARDS * (CARDS - 1) - 1;
+
+		System.out.printf("%8.1f %12d %14.0f %12.2f %14.4f %12.2f%n",
+				elapsedNanos / 1e9, count, rate, z(positionChi, positionDf),
+				positionChi / positionDf, z(pairChi, pairDf));
+	}
+
+	/**
+	 * Returns the chi-square statistic of the counts against a uniform expected
+	 * count.
+	 * @param counts		The observed counts.
+	 * @param expected		The expected count of each cell.
+	 * @param skipDiagonal	Whether the cells i*52 + i, which cannot occur, are
+	 * 						skipped.
+	 */
+	private static double chiSquare(long[] counts, double expected,
+			boolean skipDiagonal){
+		double sum = 0;
+		for(int i = 0; i < CARDS; i++){
+			for(int j = 0; j < CARDS; j++){
+				if(skipDiagonal && i == j){
+					continue;
+				}
+				double difference = counts[i * CARDS + j] - expected;
+				sum += difference * difference / expected;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the approximate z-score of a chi-square statistic, which is
+	 * normally distributed for large degrees of freedom.
+	 */
+	private static double z(double chiSquare, int degreesOfFreedom){
+		return (chiSquare - degreesOfFreedom) / Math.sqrt(2.0 * degreesOfFreedom);
+	}
+
+	/**
+	 * Determines whether any of the threads are still running.
+	 */
+	private static boolean isAlive(Thread[] threads){
+		for(Thread thread : threads){
+			if(thread.isAlive()){
+				return true;
+			}
+		}
+		return false;
+	}
+}
\ No newline at end of file
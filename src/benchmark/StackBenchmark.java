@@ -0,0 +1,98 @@
+package benchmark;
+
+import dataStructures.ArrayStack;
+import dataStructures.Stack;
+
+/**
+ * A microbenchmark comparing the linked {@link Stack} with the array based
+ * {@link ArrayStack}. Each round runs the operations that the card stacks use
+ * most (pushing and popping a deck, copying, reverse copying, appending, and
+ * reversing) and the average time per round is printed for both stacks.
+ * <p>
+ * The number of rounds may be given as the first argument.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class StackBenchmark {
+	/** The number of elements in each stack, the size of two decks.		*/
+	private static final int SIZE = 104;
+
+	/** The number of rounds run before any time is measured.				*/
+	private static final int WARM_UP_ROUNDS = 20000;
+
+	/** Holds a value computed from the stacks so that the JIT cannot remove
+	 *  the benchmarked code.												*/
+	private static long sink;
+
+	/**
+	 * Runs the benchmark.
+	 * @param args The number of measured rounds may be given as args[0].
+	 */
+	public static void main(String[] args){
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+		linkedRounds(WARM_UP_ROUNDS);
+		arrayRounds(WARM_UP_ROUNDS);
+
+		long start = System.nanoTime();
+		linkedRounds(rounds);
+		long linked = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		arrayRounds(rounds);
+		long array = System.nanoTime() - start;
+
+		System.out.printf("Stack:      %8.1f ns/round%n", linked * 1.0 / rounds);
+		System.out.printf("ArrayStack: %8.1f ns/round%n", array * 1.0 / rounds);
+		System.out.printf("Speedup:    %8.2fx (%d)%n", linked * 1.0 / array, sink);
+	}
+
+	/**
+	 * Runs the given number of rounds on a linked stack.
+	 */
+	private static void linkedRounds(int rounds){
+		Integer[] values = values();
+		for(int r = 0; r < rounds; r++){
+			Stack<Integer> stack = new Stack<Integer>();
+			for(Integer value : values){
+				stack.push(value);
+			}
+			Stack<Integer> copy = stack.copy();
+			copy.appendStack(stack.reverseCopy());
+			copy.reverse();
+			while(!copy.isEmpty()){
+				sink += copy.pop();
+			}
+		}
+	}
+
+	/**
+	 * Runs the given number of rounds on an array stack.
+	 */
+	private static void arrayRounds(int rounds){
+		Integer[] values = values();
+		for(int r = 0; r < rounds; r++){
+			ArrayStack<Integer> stack = new ArrayStack<Integer>();
+			for(Integer value : values){
+				stack.push(value);
+			}
+			ArrayStack<Integer> copy = stack.copy();
+			copy.appendStack(stack.reverseCopy());
+			copy.reverse();
+			while(!copy.isEmpty()){
+				sink += copy.pop();
+			}
+		}
+	}
+
+	/**
+	 * Returns the values to be pushed onto the stacks.
+	 */
+	private static Integer[] values(){
+		Integer[] values = new Integer[SIZE];
+		for(int i = 0; i < SIZE; i++){
+			values[i] = i;
+		}
+		return values;
+	}
+}
\ No newline at end of file
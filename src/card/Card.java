@@ -1,22 +1,48 @@
 package card;
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics;
-import java.awt.Shape;
 import java.awt.geom.RoundRectangle2D;
 
 /**
  * This class represents a drawable playing card. All cards have a {@link Suit}
  * and value. Values are ranked from Ace (value = 1) to King (value = 13). 
- * Cards are immutable with respect to suit and value. Cards are also comparable
- * with respect to value.<p>
+ * Cards are immutable and comparable with respect to value.<p>
+ * 
+ * There is one card for each suit and value, made when the class is loaded
+ * and returned by {@link #of(Suit, int)} and {@link #of(int)}, so dealing,
+ * decoding and restoring cards allocates nothing and cards may be compared
+ * with ==. A card does not know where it is or whether it is face down; the
+ * {@link StackOfCards} holding it places its cards by index and keeps which of
+ * them are hidden.<p>
+ * 
+ * The suit and value of a card are also packed into a small integer, its id,
+ * which is suit.ordinal() * 13 + value - 1. So the 52 ids are 0 to 51. Static
+ * methods are included to read the suit, value, and color of an id, so that
+ * rules can be checked and game states copied with bytes rather than with
+ * <code>Card</code> objects. A stack encodes a card as its id, with
+ * {@link #HIDDEN_BIT} added if the card is hidden.<p>
  * 
  * All cards are drawn simply, the value and suit are drawn in the top left and
  * bottom right corners and the suit drawn again at the center.
  * 
  * @author Warren Godone-Maresca
  */
-public class Card implements Comparable<Card> {
+public final class Card implements Comparable<Card> {
+	/** The number of distinct card ids.									*/
+	public static final int NUM_OF_IDS = 52;
+
+	/** Set in an encoded card if the card is hidden. Ids are less than this.	*/
+	public static final int HIDDEN_BIT = 0x40;
+
+	/** The suits indexed by ordinal, so that ids can be decoded quickly.	*/
+	private static final Suit[] SUITS = Suit.values();
+
+	/** Bit i is set if the card with id i is red.							*/
+	private static final long RED_IDS = redIds();
+
+	/** The only card of each id, indexed by id.							*/
+	private static final Card[] CARDS = allCards();
+
 	/** The suit of the card.												*/
 	private final Suit SUIT;
 
@@ -25,140 +51,147 @@ public class Card implements Comparable<Card> {
 	 *  and 13 - King.														*/
 	private final int VALUE;
 
-	/**	Holds whether or not the card is hidden from the user. If it is hidden,
-	 * 	the back of the card will be drawn, otherwise, the front.			*/
-	private boolean hidden;
-
-	/** The card's center's coordinates.							  		*/
-	private int x, y;
-
-	/** The card's width and height.										*/
-	private int width, height;
+	/** The card's id. See {@link #idOf(Suit, int)}.						*/
+	private final byte ID;
 
 	/**
-	 * Instantiates the card to be the ace of spades at the origin with no
-	 * dimensions and not hidden.
+	 * Instantiates the card with a given suit and value. Only called to make
+	 * the {@link #CARDS}.
 	 */
-	public Card(){
-		this(Suit.SPADES, 1, 0, 0, 0, false);
+	private Card(Suit suit, int value){
+		this.SUIT = suit;
+		this.VALUE = value;
+		this.ID = idOf(suit, value);
 	}
 
 	/**
-	 * Instantiates the card with a given suit, value, location, and dimension;
-	 * and whether or not the card is hidden from the user.
+	 * Returns the card with a given suit and value.
 	 *  
 	 * @param suit	The card's suit.
 	 * @param value The card's value between 1 and 13 inclusive. A value of 1
 	 * 				represents Ace, 11 represents Jack, 12 represents Queen, and
 	 * 				13 represents king. All other numbers in the range represent
 	 * 				the corresponding number card.
-	 * @param x 	The center x coordinate.
-	 * @param y 	The center y coordinate.
-	 * @param width	The width of the card in px. The card's height will be
-	 * 				calculated from the value of width and be based roughly on 
-	 * 				standard card dimensions. So the card's height will be 1.5 
-	 * 				times the given width.
-	 * @param hidden Whether or not the card will be oriented to the user when
-	 * 				 drawn.
 	 * @throws IllegalArgumentException if <code>value</code> < 1 OR 
 	 * 										<code>value</code> > 13
 	 */
-	public Card(Suit suit, int value, int x, int y, 
-			int width, boolean hidden){
-
+	public static Card of(Suit suit, int value){
 		if(value < 1 || value > 13){
 			throw new IllegalArgumentException("Value out of range.");
 		}
+		return CARDS[idOf(suit, value)];
+	}
 
-		setSize(width);
-		this.x = x;
-		this.y = y;
-		this.SUIT = suit;
-		this.VALUE = value;
-		this.hidden = hidden;
+	/**
+	 * Returns the card with the given id.
+	 * @param id The card's id, between 0 and 51.
+	 * @throws IllegalArgumentException if <code>id</code> < 0 OR 
+	 * 										<code>id</code> > 51
+	 */
+	public static Card of(int id){
+		if(id < 0 || id >= NUM_OF_IDS){
+			throw new IllegalArgumentException("Id out of range.");
+		}
+		return CARDS[id];
 	}
 
 	/**
-	 * Returns the card's suit.
+	 * Returns the card encoded in a byte, ignoring {@link #HIDDEN_BIT}, which
+	 * is kept by the stack that the card is pushed onto (see
+	 * {@link StackOfCards#decode(byte[], int, int)}).
+	 * @param code The id of the card, with {@link #HIDDEN_BIT} set if the card
+	 * 			   is hidden.
+	 * @return The decoded card.
+	 * @throws IllegalArgumentException if the code does not hold a valid id.
 	 */
-	public Suit getSuit(){
-		return SUIT;
+	public static Card decode(byte code){
+		return of(code & ~HIDDEN_BIT);
 	}
 
 	/**
-	 * Returns the card's value.
-	 * @return 	The integer value card's of the card's value. Number cards return
-	 * 			the number, Aces return 1, Jacks return 11, Queens return 12,
-	 * 			and Kings return 13.
+	 * Makes the card of each id.
 	 */
-	public int getValue(){
-		return VALUE;
+	private static Card[] allCards(){
+		Card[] cards = new Card[NUM_OF_IDS];
+		for(int id = 0; id < NUM_OF_IDS; id++){
+			cards[id] = new Card(suitOf(id), valueOf(id));
+		}
+		return cards;
 	}
 
 	/**
-	 * Flips the orientation of the card. If the card was hidden before calling
-	 * this method, it won't be afterwards. And if it was not hidden, then it
-	 * will be hidden after the call.
+	 * Returns the id of the card with the given suit and value.
+	 * @param suit	The card's suit.
+	 * @param value The card's value between 1 and 13 inclusive.
+	 * @return suit.ordinal() * 13 + value - 1, which is between 0 and 51.
 	 */
-	public void flip(){
-		hidden = !hidden;
+	public static byte idOf(Suit suit, int value){
+		return (byte)(suit.ordinal() * 13 + value - 1);
 	}
 
 	/**
-	 * Returns whether or not this card is hidden.
-	 * @return <code>true</code> if hidden, else <code>false</code>.
+	 * Returns the suit of the card with the given id.
 	 */
-	public boolean isHidden(){
-		return hidden;
+	public static Suit suitOf(int id){
+		return SUITS[id / 13];
 	}
 
 	/**
-	 * Sets whether or not the card will be hidden when drawn.
-	 * @param hidden The boolean value for hidden.
+	 * Returns the value of the card with the given id, from 1 to 13.
 	 */
-	public void setHidden(boolean hidden){
-		this.hidden = hidden;
+	public static int valueOf(int id){
+		return id % 13 + 1;
 	}
 
 	/**
-	 * Returns the x coordinate of the middle of the card.
+	 * Determines whether the card with the given id is red.
 	 */
-	public int getX(){
-		return x;
+	public static boolean isRed(int id){
+		return (RED_IDS >>> id & 1) != 0;
 	}
 
 	/**
-	 * Returns the y coordinate of the middle of the card.
+	 * Returns a mask with bit i set if the card with id i is red.
 	 */
-	public int getY(){
-		return y;
+	private static long redIds(){
+		long mask = 0;
+		for(int id = 0; id < NUM_OF_IDS; id++){
+			if(suitOf(id).getColor() == Color.RED){
+				mask |= 1L << id;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the card's suit.
+	 */
+	public Suit getSuit(){
+		return SUIT;
 	}
 
 	/**
-	 * Sets the coordinates of the center of the card.
-	 * @param x The center x coordinate.
-	 * @param y The center y coordinate.
+	 * Returns the card's id, which is between 0 and 51.
 	 */
-	public void setLocation(int x, int y){
-		this.x = x;
-		this.y = y;
+	public byte getId(){
+		return ID;
 	}
 
 	/**
-	 * Sets the size of the card based on the given width. The height of the card
-	 * will be based roughly on standard card dimensions. So the card's height
-	 * is 1.5 times the given width.
-	 * @param width The width of the card in px.
+	 * Returns the card's value.
+	 * @return 	The integer value card's of the card's value. Number cards return
+	 * 			the number, Aces return 1, Jacks return 11, Queens return 12,
+	 * 			and Kings return 13.
 	 */
-	public void setSize(int width){
-		this.width = width;
-		height = width * 3/2;
+	public int getValue(){
+		return VALUE;
 	}
 
 	/**
 	 * Draws the back of the card in which the suit and value is hidden.
 	 */
-	private void drawBack(Graphics pane){
+	private static void drawBack(Graphics pane, int x, int y, int width, 
+			int height){
 		//Draws the blue center,
 		pane.setColor(new Color(0, 0, 150));
 		pane.fillRoundRect(x - width/2 + width/20, y - height/2 + height/20, 
@@ -169,15 +202,14 @@ public class Card implements Comparable<Card> {
 	/**
 	 * Draws the front of the card with the suit and value.
 	 */
-	private void drawFront(Graphics pane){
+	private void drawFront(Graphics pane, int x, int y, int width, int height){
 		//Draws the value character in the top left corner.
 		pane.setColor(SUIT.getColor());
-		pane.setFont(new Font("Monospaced", Font.BOLD, width/4));
-		pane.drawString(valueToString(), (int)(x - width*2/5), (int)(y - height/3));
+		CardFonts fonts = CardFonts.of(width); //Shared by all cards of this width.
+		fonts.drawValue(pane, VALUE, x - width*2/5, y - height/3, false);
 
 		//Then the bottom right corner.
-		pane.setFont(new Font("Monospaced", Font.BOLD, -width/4));
-		pane.drawString(valueToString(), (int)(x + width*2/5), (int)(y + height/3));
+		fonts.drawValue(pane, VALUE, x + width*2/5, y + height/3, true);
 
 		SUIT.draw(pane, x, y, width/3); //Draws the suit in the center,
 		SUIT.draw(pane, x - width/3 + 2, y - height/5, width/5); //top left,
@@ -186,9 +218,31 @@ public class Card implements Comparable<Card> {
 
 	/**
 	 * Draws the front of the card with the suit and value if it is not hidden,
-	 * otherwise the back of the card will be drawn.
+	 * otherwise the back of the card will be drawn. The card is copied from the
+	 * shared pictures of cards of its width (see {@link CardSprites}).
+	 * @param pane		The graphics to draw with.
+	 * @param x			The center x coordinate.
+	 * @param y			The center y coordinate.
+	 * @param width		The width of the card in px. The card's height is 1.5
+	 * 					times the width, based roughly on standard card
+	 * 					dimensions.
+	 * @param hidden	Whether the back of the card is drawn.
 	 */
-	public void draw(Graphics pane){
+	public void draw(Graphics pane, int x, int y, int width, boolean hidden){
+		if(width > 0){ //Then there is something to draw.
+			CardSprites.of(width).draw(pane, ID, hidden, 
+					x - width/2, y - width*3/4);
+		}
+	}
+
+	/**
+	 * Paints the card from scratch as 
+	 * {@link #draw(Graphics, int, int, int, boolean)} would. This is used to
+	 * make the pictures that draw copies.
+	 */
+	void paint(Graphics pane, int x, int y, int width, boolean hidden){
+		int height = width * 3/2;
+
 		//Draws the shape of the card.
 		pane.setColor(Color.WHITE);
 		pane.fillRoundRect(x - width/2, y - height/2, 
@@ -200,48 +254,44 @@ public class Card implements Comparable<Card> {
 				width, height, width/10, height/10);
 
 		if(hidden){
-			drawBack(pane);
+			drawBack(pane, x, y, width, height);
 		} else { 
-			drawFront(pane);
+			drawFront(pane, x, y, width, height);
 		}
 	}
 
 	/**
-	 * Returns the card's value as a String.
-	 * @return The integer value of the card as a String if 1 < value < 11. Else,
-	 * "A" if value == 1, "J" if value == 11, "Q" if value == 12, "K" if 
-	 * value == 13. These letters represent ace or a face card respectively. 
+	 * Determines whether a point is within a rounded rectangle with integer
+	 * math, as {@link RoundRectangle2D#contains(double, double)} would, but
+	 * without allocating a shape.
+	 * @param left		The x coordinate of the left side of the rectangle.
+	 * @param top		The y coordinate of the top of the rectangle.
+	 * @param width		The width of the rectangle.
+	 * @param height	The height of the rectangle.
+	 * @param arc		The width and height of the arcs of the corners.
+	 * @param x			The x coordinate of the point.
+	 * @param y			The y coordinate of the point.
+	 * @return <code>true</code> if the point is inside the rectangle.
 	 */
-	private String valueToString(){
-		switch(VALUE){
-		case 1: return "A";	 //Ace
-		case 11: return "J"; //Jack
-		case 12: return "Q"; //Queen
-		case 13: return "K"; //King
-		default: return Integer.toString(VALUE);//Number card.
+	static boolean contains(int left, int top, int width, int height, int arc,
+			int x, int y){
+		if(width <= 0 || height <= 0 || x < left || y < top 
+				|| x >= left + width || y >= top + height){
+			return false; //Then the point is not within the bounds.
+		}
+		//All lengths are doubled so that the radii of the arcs are integers.
+		int dx = 2*(x - left), dy = 2*(y - top);
+		int arcW = Math.min(width, Math.abs(arc)); //Twice the radii of the arcs.
+		int arcH = Math.min(height, Math.abs(arc));
+		if(dx >= arcW && dx < 2*width - arcW || dy >= arcH && dy < 2*height - arcH){
+			return true; //Then the point is not in one of the corners.
 		}
-	}
-
-	/**
-	 * Returns whether or not some given coordinates are within the outline of
-	 * the card.
-	 * @param x Some x coordinate.
-	 * @param y Some y coordinate.
-	 * @return <code>true</code> if the given coordinates are inside this card,
-	 * otherwise <code>false</code>.
-	 */
-	public boolean contains(int x, int y){
-		return getShape().contains(x, y);
-	}
 
-	/**
-	 * Returns the {@link Shape} of the card.
-	 * @return A new instance of {@link RoundRectangle2D.Double} with the 
-	 * coordinates and dimensions of this card.
-	 */
-	public Shape getShape(){
-		return new RoundRectangle2D.Double(x - width/2, y - height/2, 
-				width, height, width/10, width/10);
+		//Otherwise the point must be within the ellipse of the corner.
+		dx -= dx < arcW ? arcW : 2*width - arcW;
+		dy -= dy < arcH ? arcH : 2*height - arcH;
+		long w2 = (long)arcW * arcW, h2 = (long)arcH * arcH;
+		return dx * (long)dx * h2 + dy * (long)dy * w2 <= w2 * h2;
 	}
 
 	/**
@@ -262,6 +312,7 @@ public class Card implements Comparable<Card> {
 	 * color, otherwise <code>false</code>.
 	 */
 	public boolean colorEquals(Card card){
-		return SUIT.getColor() == card.getSuit().getColor();
+		//The color bits of both ids are compared.
+		return ((RED_IDS >>> ID ^ RED_IDS >>> card.ID) & 1) == 0;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package card;
+
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fonts and laid out values used to draw the corners of cards of one width.
+ * Cards of the same width share one instance (see {@link #of(int)}), so drawing
+ * a card creates no fonts and lays out no text. Instances are immutable and may
+ * be used by any thread.
+ * <p>
+ * The value in the bottom right corner is drawn upside down with a font of
+ * negative size, which the font is scaled by.
+ *
+ * @author Warren Godone-Maresca
+ */
+final class CardFonts {
+	/** The value of each card as text, indexed by value - 1. Ace and the face
+	 *  cards are represented by their first letter.						*/
+	private static final String[] VALUES = {"A", "2", "3", "4", "5", "6", "7",
+		"8", "9", "10", "J", "Q", "K"};
+
+	/** The context that the values are laid out in: untransformed, without
+	 *  antialiasing or fractional metrics, as cards are drawn.				*/
+	private static final FontRenderContext CONTEXT =
+			new FontRenderContext(null, false, false);
+
+	/** The fonts of each card width that has been drawn.					*/
+	private static final ConcurrentHashMap<Integer, CardFonts> CACHE =
+			new ConcurrentHashMap<Integer, CardFonts>();
+
+	/** The fonts most recently returned by {@link #of(int)}. Cards are mostly
+	 *  drawn one width at a time, so this saves a lookup in the cache.		*/
+	private static volatile CardFonts last;
+
+	/** The width of the cards that these fonts are for.					*/
+	private final int width;
+
+	/** The font of the top left value.										*/
+	private final Font font;
+
+	/** The font of the bottom right value, which is upside down.			*/
+	private final Font invertedFont;
+
+	/** The laid out values of the top left and bottom right corners, indexed
+	 *  by value - 1.														*/
+	private final GlyphVector[] values, invertedValues;
+
+	/**
+	 * Creates the fonts and lays out all of the values for the given width.
+	 */
+	private CardFonts(int width){
+		this.width = width;
+		font = new Font("Monospaced", Font.BOLD, width/4);
+		invertedFont = new Font("Monospaced", Font.BOLD, -width/4);
+
+		values = new GlyphVector[VALUES.length];
+		invertedValues = new GlyphVector[VALUES.length];
+		for(int i = 0; i < VALUES.length; i++){
+			values[i] = font.createGlyphVector(CONTEXT, VALUES[i]);
+			invertedValues[i] = invertedFont.createGlyphVector(CONTEXT, VALUES[i]);
+		}
+	}
+
+	/**
+	 * Returns the fonts for cards of the given width, creating them the first
+	 * time that width is used.
+	 * @param width The width of the cards.
+	 */
+	static CardFonts of(int width){
+		CardFonts fonts = last;
+		if(fonts == null || fonts.width != width){ //Then it is looked up.
+			fonts = CACHE.get(width);
+			if(fonts == null){
+				//Two threads may both create the fonts, but only one is kept.
+				CardFonts created = new CardFonts(width);
+				fonts = CACHE.putIfAbsent(width, created);
+				if(fonts == null){
+					fonts = created;
+				}
+			}
+			last = fonts;
+		}
+		return fonts;
+	}
+
+	/**
+	 * Draws a card's value with its baseline starting at the given point, in
+	 * the graphics' current color.
+	 * @param pane		The graphics to draw with.
+	 * @param value		The card's value, from 1 to 13.
+	 * @param x			The x coordinate of the start of the baseline.
+	 * @param y			The y coordinate of the baseline.
+	 * @param inverted	Whether the value is drawn upside down, as in the bottom
+	 * 					right corner.
+	 */
+	void drawValue(Graphics pane, int value, int x, int y, boolean inverted){
+		if(pane instanceof Graphics2D){
+			GlyphVector glyphs = (inverted ? invertedValues : values)[value - 1];
+			((Graphics2D)pane).drawGlyphVector(glyphs, x, y);
+		} else { //Then the text has to be laid out by the graphics.
+			pane.setFont(inverted ? invertedFont : font);
+			pane.drawString(VALUES[value - 1], x, y);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package card;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An atlas holding a picture of each of the 52 card faces and of the back of a
+ * card, all of one width. The pictures are drawn once when the atlas is made,
+ * so drawing a card is a single copy from the atlas rather than two round
+ * rectangles, two strings and three scaled images.
+ * <p>
+ * The atlas is laid out in a grid of 13 columns, one per value, and five rows:
+ * one per suit, in the order of {@link Suit#values()}, then one with the back in
+ * the first column. So the face with id i (see {@link Card#idOf(Suit, int)}) is
+ * in row i / 13 and column i % 13.
+ * <p>
+ * One atlas is shared by all cards, stacks, and games. It is made for the width
+ * of the first card drawn, and replaced when a card of another width is drawn.
+ * The image is made compatible with the screen, when there is one, so that it
+ * can be kept in video memory.
+ * <p>
+ * Runs of face down cards, as at the bottom of a tableau, can also be drawn
+ * with one copy. A picture of each length and offset of run that is drawn is
+ * kept with the atlas.
+ *
+ * @author Warren Godone-Maresca
+ */
+final class CardSprites {
+	/** The row and column of the back of a card in the atlas.				*/
+	private static final int BACK_ROW = 4, BACK_COLUMN = 0;
+
+	/** The atlas of the width most recently drawn, or <code>null</code>.	*/
+	private static volatile CardSprites current;
+
+	/** The width of the cards in this atlas.								*/
+	private final int width;
+
+	/** The width and height of each picture, including the outline which is
+	 *  drawn one pixel beyond the card's width and height.				*/
+	private final int cellWidth, cellHeight;
+
+	/** The pictures.														*/
+	private final BufferedImage image;
+
+	/** Pictures of runs of face down cards, keyed by the number of cards in
+	 *  the lower 16 bits and the offset between them in the upper bits.	*/
+	private final ConcurrentHashMap<Integer, BufferedImage> backRuns =
+			new ConcurrentHashMap<Integer, BufferedImage>();
+
+	/**
+	 * Draws all of the pictures for cards of the given width.
+	 * @param width The width of the cards, greater than 0.
+	 */
+	private CardSprites(int width){
+		this.width = width;
+		cellWidth = width + 1;
+		cellHeight = width * 3/2 + 1;
+		image = createImage(13 * cellWidth, 5 * cellHeight);
+
+		Graphics2D pane = image.createGraphics();
+		Suit[] suits = Suit.values();
+		for(int row = 0; row < suits.length; row++){
+			for(int value = 1; value <= 13; value++){
+				paint(pane, Card.of(suits[row], value), false, row, value - 1);
+			}
+		}
+		paint(pane, Card.of(Suit.SPADES, 1), true, BACK_ROW, BACK_COLUMN);
+		pane.dispose();
+	}
+
+	/**
+	 * Returns the atlas for cards of the given width, replacing the shared atlas
+	 * if it has another width.
+	 * @param width The width of the cards, greater than 0.
+	 */
+	static CardSprites of(int width){
+		CardSprites sprites = current;
+		if(sprites == null || sprites.width != width){
+			synchronized(CardSprites.class){
+				sprites = current;
+				if(sprites == null || sprites.width != width){ //It is made once.
+					current = sprites = new CardSprites(width);
+				}
+			}
+		}
+		return sprites;
+	}
+
+	/**
+	 * Copies the picture of a card so that its top left corner is at the given
+	 * point.
+	 * @param pane		The graphics to draw with.
+	 * @param id		The card's id.
+	 * @param hidden	Whether the back of the card is drawn instead.
+	 * @param left		The x coordinate of the card's left edge.
+	 * @param top		The y coordinate of the card's top edge.
+	 */
+	void draw(Graphics pane, int id, boolean hidden, int left, int top){
+		draw(pane, id, hidden, left, top, cellHeight);
+	}
+
+	/**
+	 * Copies the top rows of the picture of a card, such as the strip of a card
+	 * that is not covered by the card above it.
+	 * @param pane		The graphics to draw with.
+	 * @param id		The card's id.
+	 * @param hidden	Whether the back of the card is drawn instead.
+	 * @param left		The x coordinate of the card's left edge.
+	 * @param top		The y coordinate of the card's top edge.
+	 * @param rows		The number of rows to copy. The whole card is copied if
+	 * 					it is at least the height of the card.
+	 */
+	void draw(Graphics pane, int id, boolean hidden, int left, int top, 
+			int rows){
+		rows = Math.min(rows, cellHeight);
+		int sourceX = (hidden ? BACK_COLUMN : id % 13) * cellWidth;
+		int sourceY = (hidden ? BACK_ROW : id / 13) * cellHeight;
+		pane.drawImage(image, left, top, left + cellWidth, top + rows,
+				sourceX, sourceY, sourceX + cellWidth, sourceY + rows, null);
+	}
+
+	/**
+	 * Copies the top rows of the picture of a run of face down cards, each
+	 * drawn over the one below it and offset downwards.
+	 * @param pane		The graphics to draw with.
+	 * @param count		The number of cards, at least 1 and less than 65536.
+	 * @param offset	The distance between the top edges of two cards, at
+	 * 					least 1.
+	 * @param left		The x coordinate of the cards' left edges.
+	 * @param top		The y coordinate of the bottom card's top edge.
+	 * @param rows		The number of rows to copy. The whole run is copied if
+	 * 					it is at least the height of the run.
+	 */
+	void drawBacks(Graphics pane, int count, int offset, int left, int top,
+			int rows){
+		Integer key = offset << 16 | count;
+		BufferedImage run = backRuns.get(key);
+		if(run == null){ //Then this run is drawn for the first time.
+			run = createImage(cellWidth, (count - 1) * offset + cellHeight);
+			Graphics2D runPane = run.createGraphics();
+			for(int i = 0; i < count; i++){
+				draw(runPane, 0, true, 0, i * offset);
+			}
+			runPane.dispose();
+			backRuns.putIfAbsent(key, run);
+		}
+		rows = Math.min(rows, run.getHeight());
+		pane.drawImage(run, left, top, left + cellWidth, top + rows,
+				0, 0, cellWidth, rows, null);
+	}
+
+	/**
+	 * Paints a card, or its back, into the cell at the given row and column.
+	 */
+	private void paint(Graphics2D pane, Card card, boolean hidden, int row,
+			int column){
+		//The card's center is placed so that its left and top edges are at the
+		//cell's left and top edges.
+		card.paint(pane, column * cellWidth + width/2,
+				row * cellHeight + (cellHeight - 1)/2, width, hidden);
+	}
+
+	/**
+	 * Returns a transparent image, compatible with the screen if there is one.
+	 * Also used for the scaled symbols of {@link Suit}.
+	 */
+	static BufferedImage createImage(int width, int height){
+		if(GraphicsEnvironment.isHeadless()){
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+}
\ No newline at end of file
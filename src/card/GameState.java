@@ -0,0 +1,389 @@
+package card;
+
+import java.util.Arrays;
+
+/**
+ * A compact, primitive-only copy of the cards in a game of solitaire. All of
+ * the state is held in one byte array, so a state can be cloned with a single
+ * array copy, hashed, compared, and stored cheaply. Only the cards are kept;
+ * the locations and sizes of the stacks are not.
+ * <p>
+ * The piles are held in this order: the tableaux, the foundations, the holding
+ * cells, the stock, and the waste. The array is laid out as follows:
+ * <ul>
+ * <li> Four bytes with the number of tableaux, foundations, holding cells, and
+ * 		other piles (0 if there is no stock, 1 for a stock, 2 for both a stock
+ * 		and a waste).
+ * <li> One byte per pile with the number of cards in the pile.
+ * <li> One byte per card with the card's id (see {@link Card#idOf(Suit, int)}),
+ * 		pile by pile, each pile from the bottom up.
+ * <li> A bitmask with one bit per card, in the same order, that is set if the
+ * 		card is hidden.
+ * </ul>
+ * So a game of Klondike Solitaire, with 13 piles and 52 cards, takes 76 bytes.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class GameState {
+	/** The number of bytes before the pile sizes.							*/
+	private static final int HEADER = 4;
+
+	/** Holds the entire state as described above.							*/
+	private final byte[] data;
+
+	/** The number of piles.												*/
+	private final int numOfPiles;
+
+	/** The total number of cards.											*/
+	private final int numOfCards;
+
+	/**
+	 * Instantiates the state with the given array without copying it.
+	 * @param data	The bytes of the state.
+	 */
+	private GameState(byte[] data){
+		this.data = data;
+		numOfPiles = data[0] + data[1] + data[2] + data[3];
+
+		int cards = 0;
+		for(int p = 0; p < numOfPiles; p++){
+			cards += data[HEADER + p] & 0xFF;
+		}
+		numOfCards = cards;
+	}
+
+	/**
+	 * Returns the state of the given stacks. Any of the arrays may be
+	 * <code>null</code> if the game does not use that kind of stack, and the
+	 * waste, or both the stock and waste, may be <code>null</code>.
+	 * @param tableaux		The tableaux of the game.
+	 * @param foundations	The foundations of the game.
+	 * @param holdingCells	The holding cells of the game.
+	 * @param stock			The stock of the game.
+	 * @param waste			The waste of the game. Must be <code>null</code> if
+	 * 						the stock is.
+	 * @return A new state holding copies of the cards in the stacks.
+	 */
+	public static GameState of(Tableau[] tableaux, Foundation[] foundations,
+			HoldingCell[] holdingCells, StackOfCards stock, StackOfCards waste){
+		if(stock == null && waste != null){
+			throw new IllegalArgumentException("A waste requires a stock.");
+		}
+		StackOfCards[] piles = piles(tableaux, foundations, holdingCells,
+				stock, waste);
+
+		int numOfCards = 0;
+		for(StackOfCards pile : piles){
+			numOfCards += pile.size();
+		}
+
+		byte[] data = new byte[HEADER + piles.length + numOfCards
+		                       + (numOfCards + 7) / 8];
+		data[0] = (byte)length(tableaux);
+		data[1] = (byte)length(foundations);
+		data[2] = (byte)length(holdingCells);
+		data[3] = (byte)(stock == null ? 0 : waste == null ? 1 : 2);
+
+		int cardIndex = 0; //The index of the card among all of the cards.
+		int cardsStart = HEADER + piles.length;
+		for(int p = 0; p < piles.length; p++){
+			StackOfCards pile = piles[p];
+			if(pile.size() > 0xFF){
+				throw new IllegalArgumentException("A pile has too many cards.");
+			}
+			data[HEADER + p] = (byte)pile.size();
+
+			for(int i = 0; i < pile.size(); i++, cardIndex++){
+				data[cardsStart + cardIndex] = pile.get(i).getId();
+				if(pile.isHidden(i)){ //Then its bit in the mask is set.
+					data[cardsStart + numOfCards + cardIndex / 8]
+							|= 1 << (cardIndex % 8);
+				}
+			}
+		}
+		return new GameState(data);
+	}
+
+	/**
+	 * Returns the state held in an array returned by {@link #toBytes()}. The
+	 * bytes are checked against the layout above, and the piles against the
+	 * rules of their stacks (see {@link #checkPiles()}), before they are used.
+	 * Whether the cards could have been dealt, such as whether a card appears
+	 * twice, is not checked, as no stack requires it.
+	 * @param data The bytes of the state. The array is copied.
+	 * @throws IllegalArgumentException if the header holds a negative count or
+	 * 			more than two other piles, if the length of the array is not
+	 * 			that given by the header and pile sizes, if a card's id is not
+	 * 			between 0 and 51, if a bit past the last card is set in the
+	 * 			bitmask, or if a pile breaks the rules of its stack.
+	 */
+	public static GameState fromBytes(byte[] data){
+		data = data.clone(); //Checked after copying, so it cannot change.
+		if(data.length < HEADER){
+			throw new IllegalArgumentException("The header is incomplete.");
+		} else if(data[0] < 0 || data[1] < 0 || data[2] < 0
+				|| data[3] < 0 || data[3] > 2){
+			throw new IllegalArgumentException("The header is invalid.");
+		}
+		int numOfPiles = data[0] + data[1] + data[2] + data[3];
+		if(data.length < HEADER + numOfPiles){
+			throw new IllegalArgumentException("The pile sizes are incomplete.");
+		}
+
+		int numOfCards = 0;
+		for(int p = 0; p < numOfPiles; p++){
+			numOfCards += data[HEADER + p] & 0xFF;
+		}
+		int cardsStart = HEADER + numOfPiles, maskStart = cardsStart + numOfCards;
+		if(data.length != maskStart + (numOfCards + 7) / 8){
+			throw new IllegalArgumentException("The length does not match the "
+					+ numOfCards + " cards of " + numOfPiles + " piles.");
+		}
+		for(int i = cardsStart; i < maskStart; i++){
+			if(data[i] < 0 || data[i] >= Card.NUM_OF_IDS){
+				throw new IllegalArgumentException("Id out of range: " + data[i]);
+			}
+		}
+		if(numOfCards % 8 != 0 && (data[data.length - 1] & 0xFF) 
+				>>> (numOfCards % 8) != 0){
+			throw new IllegalArgumentException("A bit past the last card is set.");
+		}
+		GameState state = new GameState(data);
+		state.checkPiles();
+		return state;
+	}
+
+	/**
+	 * Replaces the cards in the given stacks with the cards of this state. The
+	 * stacks must have the same structure as the stacks that this state was made
+	 * from. The locations and sizes of the cards are set by the stacks.
+	 * <p>
+	 * A stack that already holds the cards of its pile, all hidden or shown as
+	 * in this state, is left as it is, so that only the stacks that changed
+	 * have to be drawn again.
+	 * <p>
+	 * Everything is checked before any stack is changed, so the stacks either
+	 * all hold the cards of this state afterwards or are left as they were.
+	 * @throws IllegalArgumentException if the structure of the stacks differs,
+	 * 			or if a pile breaks the rules of its stack (see
+	 * 			{@link #checkPiles()}). No stack is changed then.
+	 */
+	public void restore(Tableau[] tableaux, Foundation[] foundations,
+			HoldingCell[] holdingCells, StackOfCards stock, StackOfCards waste){
+		if(length(tableaux) != data[0] || length(foundations) != data[1]
+				|| length(holdingCells) != data[2]
+				|| (stock == null ? 0 : waste == null ? 1 : 2) != data[3]){
+			throw new IllegalArgumentException("The stacks do not match.");
+		}
+		checkPiles(); //The state may have been made from stacks out of order.
+		StackOfCards[] piles = piles(tableaux, foundations, holdingCells,
+				stock, waste);
+
+		int cardIndex = 0;
+		for(int p = 0; p < piles.length; p++){
+			if(holds(piles[p], p, cardIndex)){
+				cardIndex += pileSize(p);
+				continue; //Then the stack is not changed.
+			}
+			piles[p].clear();
+			for(int i = pileSize(p); i > 0; i--, cardIndex++){
+				piles[p].push(Card.of(data[HEADER + numOfPiles + cardIndex]));
+				if(isHidden(cardIndex)){
+					piles[p].setTopHidden(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tableaux in this state.
+	 */
+	public int numOfTableaux(){
+		return data[0];
+	}
+
+	/**
+	 * Returns the number of foundations in this state.
+	 */
+	public int numOfFoundations(){
+		return data[1];
+	}
+
+	/**
+	 * Returns the number of holding cells in this state.
+	 */
+	public int numOfHoldingCells(){
+		return data[2];
+	}
+
+	/**
+	 * Returns the number of piles in this state.
+	 */
+	public int numOfPiles(){
+		return numOfPiles;
+	}
+
+	/**
+	 * Returns the number of cards in this state.
+	 */
+	public int numOfCards(){
+		return numOfCards;
+	}
+
+	/**
+	 * Returns the number of cards in the given pile.
+	 * @param pile The index of the pile in the order given above.
+	 */
+	public int pileSize(int pile){
+		return data[HEADER + pile] & 0xFF;
+	}
+
+	/**
+	 * Returns the id of a card.
+	 * @param pile	The index of the pile in the order given above.
+	 * @param index The index of the card in the pile from the bottom.
+	 */
+	public int cardAt(int pile, int index){
+		return data[HEADER + numOfPiles + pileStart(pile) + index];
+	}
+
+	/**
+	 * Determines whether a card is hidden.
+	 * @param pile	The index of the pile in the order given above.
+	 * @param index The index of the card in the pile from the bottom.
+	 */
+	public boolean isHidden(int pile, int index){
+		return isHidden(pileStart(pile) + index);
+	}
+
+	/**
+	 * Returns a copy of this state.
+	 */
+	public GameState copy(){
+		return new GameState(data.clone());
+	}
+
+	/**
+	 * Returns a copy of the bytes of this state.
+	 */
+	public byte[] toBytes(){
+		return data.clone();
+	}
+
+	/**
+	 * Returns the number of bytes used by this state.
+	 */
+	public int sizeInBytes(){
+		return data.length;
+	}
+
+	@Override
+	public boolean equals(Object other){
+		return other instanceof GameState
+				&& Arrays.equals(data, ((GameState)other).data);
+	}
+
+	@Override
+	public int hashCode(){
+		return Arrays.hashCode(data);
+	}
+
+	/**
+	 * Checks the piles against the rules of the stacks they are restored to,
+	 * which would otherwise throw or drop cards halfway through a restore: each
+	 * foundation must run from an ace upward in one suit (see
+	 * {@link Foundation#push(Card)}), and each holding cell must hold at most
+	 * one card (see {@link HoldingCell#push(Card)}). The tableaux, the stock,
+	 * and the waste take any cards.
+	 * @throws IllegalArgumentException if a pile breaks the rules of its stack.
+	 */
+	private void checkPiles(){
+		int cardIndex = pileStart(data[0]); //The bottom of the first foundation.
+		for(int f = 0; f < data[1]; f++){
+			Card below = null;
+			for(int i = pileSize(data[0] + f); i > 0; i--, cardIndex++){
+				Card card = Card.of(data[HEADER + numOfPiles + cardIndex]);
+				if(below == null ? card.getValue() != 1
+						: card.getValue() != below.getValue() + 1
+						|| card.getSuit() != below.getSuit()){
+					throw new IllegalArgumentException("Foundation " + f
+							+ " does not run from an ace upward in one suit.");
+				}
+				below = card;
+			}
+		}
+		for(int h = 0; h < data[2]; h++){
+			if(pileSize(data[0] + data[1] + h) > 1){
+				throw new IllegalArgumentException("Holding cell " + h
+						+ " holds more than one card.");
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the bottom card of the given pile among all cards.
+	 */
+	private int pileStart(int pile){
+		int start = 0;
+		for(int p = 0; p < pile; p++){
+			start += pileSize(p);
+		}
+		return start;
+	}
+
+	/**
+	 * Determines whether a stack holds the cards of the given pile of this state.
+	 * @param cardIndex The index of the pile's bottom card among all cards.
+	 */
+	private boolean holds(StackOfCards stack, int pile, int cardIndex){
+		if(stack.size() != pileSize(pile)){
+			return false;
+		}
+		for(int i = 0; i < stack.size(); i++, cardIndex++){
+			if(stack.get(i).getId() != data[HEADER + numOfPiles + cardIndex]
+					|| stack.isHidden(i) != isHidden(cardIndex)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines whether the card at the given index among all cards is hidden.
+	 */
+	private boolean isHidden(int cardIndex){
+		int mask = data[HEADER + numOfPiles + numOfCards + cardIndex / 8];
+		return (mask >>> (cardIndex % 8) & 1) != 0;
+	}
+
+	/**
+	 * Returns the length of an array, or 0 if it is <code>null</code>.
+	 */
+	private static int length(Object[] array){
+		return array == null ? 0 : array.length;
+	}
+
+	/**
+	 * Returns the given stacks in one array in the order of the state.
+	 */
+	private static StackOfCards[] piles(Tableau[] tableaux,
+			Foundation[] foundations, HoldingCell[] holdingCells,
+			StackOfCards stock, StackOfCards waste){
+		StackOfCards[] piles = new StackOfCards[length(tableaux)
+		        + length(foundations) + length(holdingCells)
+		        + (stock == null ? 0 : 1) + (waste == null ? 0 : 1)];
+		int p = 0;
+		for(Object[] kind : new Object[][] {tableaux, foundations, holdingCells}){
+			for(int i = 0; i < length(kind); i++){
+				piles[p++] = (StackOfCards)kind[i];
+			}
+		}
+		if(stock != null){
+			piles[p++] = stock;
+		}
+		if(waste != null){
+			piles[p++] = waste;
+		}
+		return piles;
+	}
+}
\ No newline at end of file
@@ -1,6 +1,6 @@
 package card;
 
-import dataStructures.Stack;
+import dataStructures.ArrayStack;
 
 /**
  * A {@link StackOfCards} that holds one card. Holding cells are used in several
@@ -47,7 +47,7 @@ public class HoldingCell extends StackOfCards {
 	 * @throws IllegalArgumentException if <code>stack</code> contains more than
 	 * 			one element.
 	 */
-	public void appendStack(Stack<Card> stack) {
+	public void appendStack(ArrayStack<Card> stack) {
 		if(stack.size() < 2){
 			super.appendStack(stack);
 		} else {
@@ -0,0 +1,175 @@
+package card;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the bounds of the stacks of a game, used to find the
+ * stack under the mouse without testing every stack. The board is divided into
+ * square cells about the width of a card, and each cell lists the stacks whose
+ * bounds (see {@link StackOfCards#getBounds()}) overlap it. Finding the stack at
+ * a point only tests the few stacks listed in the point's cell.
+ * <p>
+ * A stack tells its index when its bounds may have changed, for example when a
+ * card is pushed or popped or the stack is moved. The grid is then rebuilt the
+ * next time it is searched, so any number of changes between two searches cost
+ * one rebuild.
+ * <p>
+ * Stacks are searched in the order in which they were added, so if the regions
+ * of two stacks overlap, the stack that was added first is found.
+ * <p>
+ * An index is used only by the thread that changes its stacks: the event
+ * dispatch thread of a game that is played, or the one thread rendering a
+ * game that is only drawn. It is not safe for use by several threads.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class PileIndex {
+	/** The stacks in this index in the order in which they were added.		*/
+	private StackOfCards[] piles = new StackOfCards[16];
+
+	/** The number of stacks in this index.									*/
+	private int numOfPiles;
+
+	/** Whether the bounds of a stack may have changed since the grid was
+	 *  built.																*/
+	private boolean dirty = true;
+
+	/** The left and top coordinates of the grid.							*/
+	private int left, top;
+
+	/** The width and height of each cell.									*/
+	private int cellSize;
+
+	/** The number of columns and rows of cells.							*/
+	private int columns, rows;
+
+	/** The indices in piles of the stacks overlapping each cell, where the
+	 *  cell in row r and column c is at index r*columns + c.				*/
+	private int[][] cells = new int[0][];
+
+	/**
+	 * Adds a stack to this index. A stack may only be in one index.
+	 * @param pile The stack to add.
+	 */
+	public void add(StackOfCards pile){
+		if(numOfPiles == piles.length){
+			piles = Arrays.copyOf(piles, 2 * piles.length);
+		}
+		piles[numOfPiles++] = pile;
+		pile.index = this;
+		dirty = true;
+	}
+
+	/**
+	 * Returns the number of stacks in this index.
+	 */
+	public int size(){
+		return numOfPiles;
+	}
+
+	/**
+	 * Returns the stack at the given position in the order in which the stacks
+	 * were added.
+	 * @throws IndexOutOfBoundsException if <code>i</code> < 0 OR 
+	 * 										<code>i</code> >= size().
+	 */
+	public StackOfCards get(int i){
+		if(i < 0 || i >= numOfPiles){
+			throw new IndexOutOfBoundsException("Index: " + i);
+		}
+		return piles[i];
+	}
+
+	/**
+	 * Marks the grid as out of date, so that it will be rebuilt before the next
+	 * search. This is called by the stacks in this index.
+	 */
+	public void invalidate(){
+		dirty = true;
+	}
+
+	/**
+	 * Returns the first stack that either contains the given point (see
+	 * {@link StackOfCards#contains(int, int)}) or whose next card would contain
+	 * it (see {@link StackOfCards#nextCardContains(int, int)}).
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 * @return That stack, or <code>null</code> if there is none.
+	 */
+	public StackOfCards pileAt(int x, int y){
+		if(dirty){
+			rebuild();
+		}
+		if(x < left || y < top){
+			return null;
+		}
+		int column = (x - left) / cellSize, row = (y - top) / cellSize;
+		if(column >= columns || row >= rows){
+			return null;
+		}
+		for(int p : cells[row * columns + column]){
+			StackOfCards pile = piles[p];
+			if(pile.contains(x, y) || pile.nextCardContains(x, y)){
+				return pile;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Builds the grid from the current bounds of the stacks.
+	 */
+	private void rebuild(){
+		//Cleared first, so that a change made during the rebuild marks the grid
+		//as out of date again.
+		dirty = false;
+		if(numOfPiles == 0){
+			columns = rows = 0;
+			cells = new int[0][];
+			return;
+		}
+
+		Rectangle[] bounds = new Rectangle[numOfPiles];
+		Rectangle board = null; //The union of all of the bounds.
+		int widest = 1;
+		for(int p = 0; p < numOfPiles; p++){
+			bounds[p] = piles[p].getBounds();
+			board = board == null ? new Rectangle(bounds[p]) : board.union(bounds[p]);
+			widest = Math.max(widest, piles[p].cardWidth);
+		}
+		left = board.x;
+		top = board.y;
+		cellSize = widest;
+		columns = (board.width + cellSize - 1) / cellSize + 1;
+		rows = (board.height + cellSize - 1) / cellSize + 1;
+
+		//The stacks are counted per cell, then the cells are filled.
+		int[] counts = new int[columns * rows];
+		for(int pass = 0; pass < 2; pass++){
+			if(pass == 1){
+				cells = new int[counts.length][];
+				for(int c = 0; c < counts.length; c++){
+					cells[c] = new int[counts[c]];
+					counts[c] = 0;
+				}
+			}
+			for(int p = 0; p < numOfPiles; p++){
+				Rectangle r = bounds[p];
+				int firstColumn = (r.x - left) / cellSize;
+				int lastColumn = (r.x + r.width - left) / cellSize;
+				int firstRow = (r.y - top) / cellSize;
+				int lastRow = (r.y + r.height - top) / cellSize;
+				for(int row = firstRow; row <= lastRow; row++){
+					for(int column = firstColumn; column <= lastColumn; column++){
+						int c = row * columns + column;
+						if(pass == 1){
+							cells[c][counts[c]] = p;
+						}
+						counts[c]++;
+					}
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
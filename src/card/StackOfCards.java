@@ -3,27 +3,48 @@ package card;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.RoundRectangle2D;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
 
-import dataStructures.Stack;
+import dataStructures.ArrayStack;
 
 /**
- * A {@link Stack} of {@link Card}s. This class has all of the functionality of
+ * An {@link ArrayStack} of {@link Card}s. This class has all of the functionality of
  * a typical stack ADT (push, pop, etc.) with some additional features for cards.
  * <p>
  * A <code>StackOfCards</code> object has coordinates for the bottom card in the
  * stack and offset value to set the location of a card relative the card below
  * it in the stack. Additionally, all cards in the stack will have the same size.
+ * The location of a card is computed from its index when it is needed (see
+ * {@link #cardX(int)}), so moving or reordering a stack moves no cards.
+ * <p>
+ * A stack also keeps which of its cards are hidden, one bit per index. Cards
+ * are pushed face up, and only the top card is flipped (see
+ * {@link #setTopHidden(boolean)}). Cards moved from another stack of cards with
+ * {@link #appendStack(ArrayStack)} or {@link #popRange(int, ArrayStack)} keep
+ * their orientation; cards from a plain {@link ArrayStack} are face up.
  * <p>
  * An empty stack can be instantiated with a constructor. Additionally,
  * the static method <code>randomDeck()</code> can be used to return a new 
- * <code>StackOfCards</code> object filled with 52 cards in random order. Although
+ * <code>StackOfCards</code> object filled with 52 cards in random order. A seed
+ * may be given to <code>randomDeck(long)</code> so that the same deal can be
+ * regenerated exactly. Although
  * all cards in that stack will have no size and be located at the origin. However,
  * these values can be set later with appropriate set methods.
+ * <p>
+ * The cards of a stack can be copied into a byte array with 
+ * {@link #encode(byte[], int)}, one byte per card holding its id and
+ * {@link Card#HIDDEN_BIT} if it is hidden, and restored with
+ * {@link #decode(byte[], int, int)}.
  * 
  * @author Warren Godone-Maresca
  */
-public class StackOfCards extends Stack<Card> {
+public class StackOfCards extends ArrayStack<Card> {
 
 	/** The coordinates of the center of the bottom card.					*/
 	protected int x, y;
@@ -35,6 +56,31 @@ public class StackOfCards extends Stack<Card> {
 	 * with the card below it. The bottom card will have coordinates (x,y).	 */
 	protected int offsetX, offsetY;
 
+	/** Bit i % 64 of element i / 64 is set if the card at index i is hidden.
+	 *  The bits at and above the size are not used.						*/
+	private long[] hiddenBits = new long[1];
+
+	/** The index that this stack has been added to, if any. It is told when
+	 *  the bounds of this stack change.									*/
+	PileIndex index;
+
+	/** Counts the changes to the cards and location of this stack, so that
+	 *  drawings of it can tell when they are out of date.					*/
+	private int modCount;
+
+	/** Counts the changes to the cards of this stack along with those of
+	 *  other stacks, or <code>null</code> (see
+	 *  {@link #countChanges(LongAdder)}).									*/
+	private LongAdder changes;
+
+	/** The snapshot taken since the last change, or <code>null</code> if the
+	 *  stack has changed since the last snapshot (see {@link #snapshot()}).	*/
+	private StackSnapshot snapshot;
+
+	/** The encoded cards of the last snapshot, or <code>null</code> if the
+	 *  cards have changed since. A stack that is only moved keeps them.	*/
+	private byte[] codes;
+
 	/**
 	 * Instantiates an empty <code>StackOfCards</code> where all cards will have
 	 * no size and be  positioned at the origin.
@@ -73,26 +119,100 @@ public class StackOfCards extends Stack<Card> {
 	 * are at the origin with no size and are not hidden.
 	 */
 	public static StackOfCards randomDeck(){
+		return randomDeck(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Returns a new <code>StackOfCards</code> object with 52 cards where all cards
+	 * are at the origin with no size and are not hidden. The order of the cards
+	 * only depends on the seed, so a deal can be regenerated from its seed.
+	 * @param seed The seed of the {@link SplittableRandom} used to shuffle.
+	 */
+	public static StackOfCards randomDeck(long seed){
+		return randomDeck(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Returns a new <code>StackOfCards</code> object with 52 cards where all cards
+	 * are at the origin with no size and are not hidden.
+	 * @param random The source of randomness for the shuffle.
+	 */
+	public static StackOfCards randomDeck(RandomGenerator random){
 		StackOfCards deck = new StackOfCards();
 		deck.fillBySuit();
-		deck.shuffle();           //then shuffled.
+		deck.shuffle(random);     //then shuffled.
 		return deck;
 	}
 
 	/**
-	 * Adds <code>card</code> to this stack. The card's x coordinate will be
-	 * <code>x</code> + (<code>offsetX</code>) * (the previous size). The y
-	 * coordinate will be set similarly (with <code>offsetY</code> used
-	 * instead). The size of <code>card</code> will be set according to 
-	 * <code>cardWidth</code>.
+	 * Adds <code>card</code> to this stack face up. The card will be drawn at
+	 * x coordinate <code>x</code> + (<code>offsetX</code>) * (the previous
+	 * size), the y coordinate similarly (with <code>offsetY</code> used
+	 * instead), and with the size of this stack's cards.
 	 */
 	public void push(Card card){
-		//Note: size has not been incremented at this point, it will be incremented
-		//in the super method.
-		//The location of the card is changed to match the stack.
-		card.setLocation(x + offsetX*size, y + offsetY*size);
-		card.setSize(cardWidth); //And so is the size.
 		super.push(card);
+		setHidden(size - 1, false);
+		boundsChanged();
+	}
+
+	/**
+	 * Removes and returns the top card of this stack. See 
+	 * {@link ArrayStack#pop()}.
+	 */
+	@Override
+	public Card pop(){
+		Card card = super.pop();
+		boundsChanged();
+		return card;
+	}
+
+	/**
+	 * Removes the top cards of this stack and pushes them onto the given stack.
+	 * See {@link ArrayStack#popRange(int, ArrayStack)}.
+	 */
+	@Override
+	public void popRange(int count, ArrayStack<Card> destination){
+		super.popRange(count, destination);
+		boundsChanged();
+	}
+
+	/**
+	 * Pushes the cards of the given stack from index <code>from</code>
+	 * (inclusive) to index <code>to</code> (exclusive) onto this stack, from the
+	 * bottom up, each with {@link #push(Card)}. If the given stack is a stack of
+	 * cards, the hidden cards stay hidden. See
+	 * {@link ArrayStack#appendRange(ArrayStack, int, int)}.
+	 */
+	@Override
+	public void appendRange(ArrayStack<Card> stack, int from, int to){
+		if(!(stack instanceof StackOfCards)){ //Then its cards are face up.
+			super.appendRange(stack, from, to);
+			return;
+		}
+		if(from < 0 || to > stack.size() || from > to){
+			throw new IndexOutOfBoundsException("Range: " + from + " to " + to);
+		}
+		StackOfCards cards = (StackOfCards)stack;
+		ensureCapacity(size + to - from);
+		//The given stack may be this stack, so each card's orientation is read
+		//before it is pushed.
+		for(int i = from; i < to; i++){
+			boolean hidden = cards.isHidden(i);
+			push(cards.elementAt(i));
+			if(hidden){
+				setTopHidden(true);
+			}
+		}
+	}
+
+	/**
+	 * Removes all cards from this stack.
+	 */
+	@Override
+	public void clear(){
+		super.clear();
+		boundsChanged();
 	}
 
 	/**
@@ -101,149 +221,169 @@ public class StackOfCards extends Stack<Card> {
 	public void fillBySuit(){
 		for(Suit suit : Suit.values()){
 			for(int i = 1; i < 14; i++){
-				push(new Card(suit, i, cardWidth, x, y, false));
+				push(Card.of(suit, i));
 			}
 		}
 	}
 	
 	
 	/**
-	 * Reverses the stack and sets each of the card's location accordingly. The
-	 * new bottom card will be located at (x, y).
+	 * Writes the encoded cards of this stack, from the bottom up, into the given
+	 * array. A card is encoded as its id, with {@link Card#HIDDEN_BIT} set if
+	 * it is hidden.
+	 * @param destination	The array to receive the bytes.
+	 * @param offset		The index in the array of the bottom card's byte.
+	 * @return The index after the top card's byte, that is, offset + size().
+	 */
+	public int encode(byte[] destination, int offset){
+		for(int i = 0; i < size; i++){
+			byte id = elementAt(i).getId();
+			destination[offset + i] = (byte)(isHidden(i) ? id | Card.HIDDEN_BIT : id);
+		}
+		return offset + size;
+	}
+
+	/**
+	 * Returns the encoded cards of this stack, from the bottom up, in a new
+	 * array.
+	 */
+	public byte[] toBytes(){
+		byte[] bytes = new byte[size];
+		encode(bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Replaces the cards in this stack with the cards encoded in the given range
+	 * of an array, from the bottom up. The cards are pushed with 
+	 * {@link #push(Card)}, and those with {@link Card#HIDDEN_BIT} set are then
+	 * hidden.
+	 * @param source	The array holding the bytes.
+	 * @param offset	The index of the bottom card's byte.
+	 * @param length	The number of cards.
+	 * @throws IllegalArgumentException if a byte does not hold a valid id.
+	 */
+	public void decode(byte[] source, int offset, int length){
+		clear();
+		ensureCapacity(length);
+		for(int i = 0; i < length; i++){
+			byte code = source[offset + i];
+			push(Card.decode(code));
+			if((code & Card.HIDDEN_BIT) != 0){
+				setTopHidden(true);
+			}
+		}
+	}
+
+	/**
+	 * Reverses the stack. Each card keeps its orientation, and the new bottom
+	 * card will be located at (x, y).
 	 */
 	public void reverse(){
-		super.reverse();
-		setLocation(x, y); //The location of each card is updated.
+		for(int i = 0, j = size - 1; i < j; i++, j--){
+			swap(i, j);
+		}
+		boundsChanged();
 	}
 
 	/**
-	 * Reorders all of the cards randomly. The positions of the cards will be
-	 * changed accordingly.
+	 * Reorders all of the cards randomly. Each card keeps its orientation. The
+	 * random numbers are drawn from the current thread's
+	 * {@link ThreadLocalRandom}, so threads shuffling at the same time do not
+	 * contend with each other.
 	 */
 	public void shuffle(){
-		//First merge shuffle is performed and the Knuth/Fisher-Yates shuffle is.
-		//done. After several tests, these shuffles in this order had the most
-		//uniform odds of some permutation of the cards being selected.
-		head = knuthShuffle(mergeShuffle(head));
-		setLocation(x, y);
+		shuffle(ThreadLocalRandom.current());
 	}
 
 	/**
-	 * Shuffles the deck by randomly by performing the Knuth/Fisher-Yates shuffle.
-	 * 
-	 * @param head 	The head of the list to be shuffled. For this method, it
-	 * 				is intended for node to be head.
-	 * @return A node that heads a shuffled deck.
-	 */
-	private Node<Card> knuthShuffle(Node<Card> head){
-		if(size < 2) //Then no shuffling needs to be performed.
-			return head;
-
-		int tempSize = size;//The number of nodes that still need to be shuffled.
-		
-		//For each node in the list:
-		for(Node<Card> node = head; node.getNext() != null; node = node.getNext()){
-			
-			Node<Card> randomNode = node; //A random node.
-			
-			//The position of the random node relative to node.
-			int numOfIterations = (int)(Math.random() * tempSize--);
-			
-			//Advances the random node to its position.
-			for(int i = 0; i < numOfIterations; i++){
-				randomNode = randomNode.getNext();
-			}	
-			swap(node, randomNode); //And swap node with randomNode
+	 * Reorders all of the cards randomly with the Knuth/Fisher-Yates shuffle in
+	 * O(n) time. Every permutation of the cards is equally likely if the given
+	 * generator is uniform. Each card keeps its orientation.
+	 * @param random The source of randomness.
+	 */
+	public void shuffle(RandomGenerator random){
+		//From the top down, a random card from the positions that have not been
+		//shuffled yet is swapped into each position.
+		for(int i = size - 1; i > 0; i--){
+			swap(i, random.nextInt(i + 1));
 		}
-		return head;
+		boundsChanged();
 	}
 	
-	
 	/**
-	 * Swaps the data in node1 and node2 between each other.
+	 * Swaps the cards, and their orientations, at the given indices.
 	 */
-	private void swap(Node<Card> node1, Node<Card> node2){
-		Card tempCard = node1.getValue();	
-		node1.setValue(node2.getValue());
-		node2.setValue(tempCard);
+	private void swap(int i, int j){
+		Object tempCard = elements[i];	
+		elements[i] = elements[j];
+		elements[j] = tempCard;
+
+		boolean tempHidden = isHidden(i);
+		setHidden(i, isHidden(j));
+		setHidden(j, tempHidden);
 	}
 
 	/**
-	 * Shuffles the given list/node by recursively dividing it into two sublists
-	 * of equal length
-	 * @param node
-	 * @return
+	 * Determines whether the card at the given index is hidden.
+	 * @param index The index of the card from the bottom of the stack.
+	 * @throws IndexOutOfBoundsException if <code>index</code> < 0 OR
+	 * 										<code>index</code> >= size().
 	 */
-	private Node<Card> mergeShuffle(Node<Card> node){
-		//Base case. 
-		if(node== null || node.getNext() == null){ //Then there does exists
-			return node;					 //another permutation for the list.
+	public boolean isHidden(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index);
 		}
-		
-		Node<Card> headL = node;		//Heads the left list.
-
-		Node<Card> slowCounter = node;	//Holds the element before the middle element
-		Node<Card> fastCounter = node.getNext();	//To iterate through the list.
-
-		//The following loop finds the middle node. Slow counter will point to
-		//the middle node.
-		//We will advance the fastCounter twice and slowCounter once in each
-		//iteration. When fastCounter is null, slowCounter will be pointing to
-		//the middle of node.
-		while(fastCounter != null && fastCounter.getNext() != null){
-			slowCounter = slowCounter.getNext();
-			fastCounter = fastCounter.getNext().getNext(); //advanced twice.
-		}
-
-		Node<Card> headR = slowCounter.getNext();//The right sublist.
-		slowCounter.setNext(null); //Severs the origin list into two.
-		headL = mergeShuffle(headL); //Shuffle the left.
-		headR = mergeShuffle(headR); //Shuffle the right
-		return randomizedMerge(headL, headR); //And merge them.
+		int word = index >>> 6;
+		return word < hiddenBits.length && (hiddenBits[word] >>> index & 1) != 0;
 	}
 
 	/**
-	 * Merges the two given lists in random order. For best results (most random
-	 * order), the two given lists should have similar sizes.
-	 * @param left  One of the lists to be merged.
-	 * @param right The other list to be merged.
-	 * @return The merged list.
+	 * Sets the bit of the card at the given index, growing the bits if needed.
 	 */
-	private Node<Card> randomizedMerge(Node<Card> left, Node<Card> right){
-		if(left == null) //Then there is no merging to be done.
-			return right;
-		if(right == null)
-			return left;
-
-		Node<Card> randomHead = null; //Heads the merged list.
-
-		if(Math.random() <= 0.5){ //Randomly selects the left or right list.
-			randomHead = left;
-			randomHead.setNext(randomizedMerge(left.getNext(), right));
+	private void setHidden(int index, boolean hidden){
+		int word = index >>> 6;
+		if(word >= hiddenBits.length){
+			if(!hidden){
+				return; //Then the bit is already clear.
+			}
+			hiddenBits = Arrays.copyOf(hiddenBits, 
+					Math.max(word + 1, 2 * hiddenBits.length));
+		}
+		if(hidden){
+			hiddenBits[word] |= 1L << index;
 		} else {
-			randomHead = right;
-			randomHead.setNext(randomizedMerge(left, right.getNext()));
+			hiddenBits[word] &= ~(1L << index);
 		}
-		return randomHead;
 	}
 
+	/**
+	 * Returns the x coordinate of the center of the card at the given index,
+	 * which need not hold a card yet.
+	 */
+	public int cardX(int index){
+		return x + index*offsetX;
+	}
+
+	/**
+	 * Returns the y coordinate of the center of the card at the given index,
+	 * which need not hold a card yet.
+	 */
+	public int cardY(int index){
+		return y + index*offsetY;
+	}
 
 	/**
 	 * Sets the location of all cards in the stack according to the existing offset
-	 * and the given (x,y) coordinates.
+	 * and the given (x,y) coordinates. No card is touched, as cards are placed
+	 * by their index.
 	 * @param x The x coordinate of the center of the bottom card.
 	 * @param y The y coordinate of the center of the bottom card.
 	 */
 	public void setLocation(int x, int y){
 		this.x = x;
 		this.y = y;
-		//Then the location of all elements are updated.
-		int i = 0;
-		for(Node<Card> node = head; node != null; node = node.getNext()){
-			node.getValue().setLocation( //Continued next line.
-					x + (size- i - 1)*offsetX, y + (size - i - 1)*offsetY);
-			i++;
-		}
+		moved();
 	}
 
 	/**
@@ -270,38 +410,85 @@ public class StackOfCards extends Stack<Card> {
 	 *			<code>false</code>.
 	 */
 	public boolean contains(int x, int y){
-		//Each card is checked to see if it contains the given location.
-		for(Node<Card> node = head; node != null; node = node.getNext()){
-			if(node.getValue().contains(x, y))
-				return true;
+		return cardIndexAt(x, y) >= 0;
+	}
+
+	/**
+	 * Returns the index of the top most card that contains the given point. The
+	 * index is computed from the location, offset, and card width of this stack,
+	 * so only the few cards that could contain the point are checked and
+	 * nothing is allocated.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 * @return The index of the card from the bottom of the stack, or -1 if no
+	 * 			card contains the point.
+	 */
+	public int cardIndexAt(int x, int y){
+		int width = cardWidth, height = cardWidth * 3/2;
+
+		//Card i's bounds contain the point if both of its sides are on the 
+		//correct side of the point in both dimensions. That is true for a range
+		//of indices in each dimension.
+		int ax = x - this.x + width/2, ay = y - this.y + height/2;
+		int first = Math.max(Math.max(firstIndex(ax, width, offsetX), 
+				firstIndex(ay, height, offsetY)), 0);
+		int last = Math.min(Math.min(lastIndex(ax, width, offsetX),
+				lastIndex(ay, height, offsetY)), size - 1);
+
+		//The corners of the cards are rounded, so the cards in the range are
+		//checked from the top down.
+		for(int i = last; i >= first; i--){
+			if(Card.contains(this.x + i*offsetX - width/2, 
+					this.y + i*offsetY - height/2, width, height, width/10, x, y)){
+				return i;
+			}
 		}
-		return false;
+		return -1;
 	}
 
 	/**
-	 * Draws all of the cards in order of the stack. A card will be drawn
-	 * on top of all cards below it in the stack.
-	 * But if the stack is empty, the shape of a card will be drawn where a card
-	 * would be located if added and with the corresponding size.
+	 * Returns the smallest index i for which a - length < i * offset <= a. If
+	 * offset is 0, then 0 is returned if that holds for all i, else a number
+	 * larger than any index.
 	 */
-	public void draw(Graphics pane){
-		if(isEmpty()){
-			drawOutlineOfNextCard(pane);
+	private static int firstIndex(int a, int length, int offset){
+		if(offset == 0){
+			return a - length < 0 ? 0 : Integer.MAX_VALUE;
+		} else if(offset > 0){
+			return Math.floorDiv(a - length, offset) + 1;
 		} else {
-			draw(pane, head);	
+			return -Math.floorDiv(-a, offset); //The ceiling of a / offset.
 		}
 	}
 
 	/**
-	 * Draws all cards below a given node containing a card.
+	 * Returns the largest index i for which a - length < i * offset <= a. If
+	 * offset is 0, then a number larger than any index is returned if that holds
+	 * for all i, else -1.
 	 */
-	private void draw(Graphics pane, Node<Card> node){
-		if(node != null){
-			draw(pane, node.getNext());
-			node.getValue().draw(pane);
+	private static int lastIndex(int a, int length, int offset){
+		if(offset == 0){
+			return 0 <= a ? Integer.MAX_VALUE : -1;
+		} else if(offset > 0){
+			return Math.floorDiv(a, offset);
+		} else {
+			return -Math.floorDiv(length - a, offset) - 1;
 		}
 	}
 
+	/**
+	 * Draws all of the cards in order of the stack. A card will be drawn
+	 * on top of all cards below it in the stack.
+	 * But if the stack is empty, the shape of a card will be drawn where a card
+	 * would be located if added and with the corresponding size.
+	 * <p>
+	 * The cards are drawn from the {@link #snapshot()}, so this must be called
+	 * by the thread that changes the stack.
+	 */
+	public void draw(Graphics pane){
+		snapshot().draw(pane);
+	}
+
 	/**
 	 * Returns the shape of a card where a card will be located if added
 	 * and with the dimensions of this stack's cards.
@@ -314,6 +501,129 @@ public class StackOfCards extends Stack<Card> {
 				cardWidth, cardWidth*3/2, cardWidth/10, cardWidth/10);
 	}
 
+	/**
+	 * Determines whether a given point is within the {@link #shapeOfNextCard()}
+	 * without allocating the shape.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 */
+	public boolean nextCardContains(int x, int y){
+		return Card.contains(this.x - cardWidth/2 - offsetX*size, 
+				this.y - cardWidth*3/4 + offsetY*size, cardWidth, cardWidth*3/2,
+				cardWidth/10, x, y);
+	}
+
+	/**
+	 * Returns the smallest rectangle that contains everything drawn for this
+	 * stack: its cards, including their outlines, and the
+	 * {@link #shapeOfNextCard()}. It is used to repaint only the parts of a
+	 * container that a stack covers.
+	 */
+	public Rectangle getBounds(){
+		return bounds(x, y, cardWidth, offsetX, offsetY, size);
+	}
+
+	/**
+	 * Returns the bounds of a stack with the given location, card width, offset
+	 * and number of cards. See {@link #getBounds()}.
+	 */
+	static Rectangle bounds(int x, int y, int cardWidth, int offsetX,
+			int offsetY, int size){
+		int width = cardWidth, height = cardWidth*3/2;
+		int top = Math.max(size - 1, 0); //The index of the top card.
+
+		//The left and top edges of the bottom card, the top card, and the next
+		//card.
+		int left = Math.min(x - width/2, 
+				Math.min(x + top*offsetX - width/2, x - width/2 - offsetX*size));
+		int upper = Math.min(y - height/2, 
+				Math.min(y + top*offsetY - height/2, y - width*3/4 + offsetY*size));
+		int right = Math.max(x - width/2, 
+				Math.max(x + top*offsetX - width/2, x - width/2 - offsetX*size));
+		int lower = Math.max(y - height/2, 
+				Math.max(y + top*offsetY - height/2, y - width*3/4 + offsetY*size));
+
+		//The outline of a card is drawn one pixel beyond its width and height.
+		return new Rectangle(left, upper, right - left + width + 1, 
+				lower - upper + height + 1);
+	}
+
+	/**
+	 * Returns a number that changes whenever a card is added to or removed from
+	 * this stack, or the stack is moved. Flipping the top card does not change
+	 * it.
+	 */
+	public int modCount(){
+		return modCount;
+	}
+
+	/**
+	 * Adds each later change to the cards of this stack, that is, each time
+	 * cards are added, removed, or reordered, to the given counter, which may
+	 * be shared by many stacks and read by any thread. Moving the stack or
+	 * flipping its top card is not counted.
+	 * @param counter The counter, or <code>null</code> to stop counting.
+	 */
+	public void countChanges(LongAdder counter){
+		changes = counter;
+	}
+
+	/**
+	 * Returns a snapshot of the current cards and location of this stack. The
+	 * snapshot is only taken when it is first asked for after a change, so a
+	 * stack changed many times between two snapshots, such as while a deck is
+	 * dealt, is copied once, and a stack that was only moved shares the cards
+	 * of its last snapshot. This must be called by the thread that changes the
+	 * stack; the snapshot it returns may then be read by any thread.
+	 */
+	public StackSnapshot snapshot(){
+		if(snapshot == null){ //Then the stack has changed since the last one.
+			if(codes == null){
+				codes = toBytes();
+			}
+			snapshot = new StackSnapshot(this, codes);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Hides or shows the top card of this stack, if there is one. Cards in a
+	 * stack are flipped with this method, so that its next snapshot shows them.
+	 * @param hidden Whether the top card is hidden.
+	 */
+	public void setTopHidden(boolean hidden){
+		if(!isEmpty()){
+			setHidden(size - 1, hidden);
+			codes = null;
+			snapshot = null;
+		}
+	}
+
+	/**
+	 * Counts a change to the cards of this stack, also in the counter of
+	 * changes if there is one, tells the index of this stack, if any, that its
+	 * bounds may have changed, and marks its snapshot as out of date.
+	 */
+	protected void boundsChanged(){
+		codes = null;
+		if(changes != null){
+			changes.increment();
+		}
+		moved();
+	}
+
+	/**
+	 * Counts a move of this stack, tells its index, and marks its snapshot, but
+	 * not the cards of the snapshot, as out of date.
+	 */
+	private void moved(){
+		modCount++;
+		if(index != null){
+			index.invalidate();
+		}
+		snapshot = null;
+	}
+
 	/**
 	 * Draws the {@link #shapeOfNextCard()} in light gray.
 	 */
@@ -0,0 +1,183 @@
+package card;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.RoundRectangle2D;
+
+/**
+ * An immutable picture of a {@link StackOfCards} at one time: the encoded cards
+ * (see {@link StackOfCards#encode(byte[], int)}) from the bottom up, and the
+ * location, card width and offset that place them. Card i is centered at
+ * (x + i*offsetX, y + i*offsetY), as the stack places it.
+ * <p>
+ * A stack takes a snapshot when one is asked for after it has changed (see
+ * {@link StackOfCards#snapshot()}), on the thread that changes it. A game
+ * publishes the snapshots of all of its stacks together, once a change is
+ * complete, and painting only reads the latest published snapshots, so it
+ * never sees a stack, or a card moving between two stacks, halfway through a
+ * change, never takes a lock, and never makes the thread changing the stacks
+ * wait. A snapshot never changes, so it may be used by any thread.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class StackSnapshot {
+	/** The encoded cards from the bottom up.								*/
+	private final byte[] codes;
+
+	/** The coordinates of the center of the bottom card.					*/
+	private final int x, y;
+
+	/** The width of the cards.												*/
+	private final int cardWidth;
+
+	/** The difference in coordinates of a card and the card below it.		*/
+	private final int offsetX, offsetY;
+
+	/** Whether the stack is a {@link Tableau}, whose covered cards are drawn
+	 *  as strips.															*/
+	private final boolean tableau;
+
+	/**
+	 * Takes a snapshot of the given stack.
+	 * @param stack	The stack.
+	 * @param codes	The encoded cards of the stack, which are not copied and
+	 * 				must not be changed afterwards.
+	 */
+	StackSnapshot(StackOfCards stack, byte[] codes){
+		this.codes = codes;
+		x = stack.x;
+		y = stack.y;
+		cardWidth = stack.cardWidth;
+		offsetX = stack.offsetX;
+		offsetY = stack.offsetY;
+		tableau = stack instanceof Tableau;
+	}
+
+	/**
+	 * Returns the number of cards.
+	 */
+	public int size(){
+		return codes.length;
+	}
+
+	/**
+	 * Determines whether there are no cards.
+	 */
+	public boolean isEmpty(){
+		return codes.length == 0;
+	}
+
+	/**
+	 * Returns the encoded card at the given index from the bottom.
+	 * @throws IndexOutOfBoundsException if <code>index</code> < 0 OR
+	 * 										<code>index</code> >= size().
+	 */
+	public byte codeAt(int index){
+		return codes[index];
+	}
+
+	/**
+	 * Returns the bounds of everything drawn for the stack, as
+	 * {@link StackOfCards#getBounds()} did when this snapshot was taken.
+	 */
+	public Rectangle getBounds(){
+		return StackOfCards.bounds(x, y, cardWidth, offsetX, offsetY,
+				codes.length);
+	}
+
+	/**
+	 * Draws the cards from the bottom up, or the outline of the next card if
+	 * there are none. Only the strip of each card of a tableau that is not
+	 * covered by the card above it is drawn, and the face down cards at the
+	 * bottom of a tableau are drawn together with one copy. If the cards are
+	 * not offset, such as in a stock, only the top card is drawn, as it covers
+	 * the others.
+	 * @param pane The graphics to draw with.
+	 */
+	public void draw(Graphics pane){
+		if(isEmpty()){
+			drawOutlineOfNextCard(pane);
+		} else if(cardWidth <= 0){
+			return; //Then there is nothing to draw.
+		} else if(offsetX == 0 && offsetY == 0){
+			drawTop(pane);
+		} else if(tableau && offsetX == 0 && offsetY > 0){
+			drawStrips(pane);
+		} else {
+			CardSprites sprites = CardSprites.of(cardWidth);
+			for(int i = 0; i < codes.length; i++){ //From the bottom up.
+				drawCard(sprites, pane, i, Integer.MAX_VALUE);
+			}
+		}
+	}
+
+	/**
+	 * Draws only the top card, if there is one, such as for a stock whose
+	 * other cards are covered.
+	 * @param pane The graphics to draw with.
+	 */
+	public void drawTop(Graphics pane){
+		if(!isEmpty() && cardWidth > 0){
+			drawCard(CardSprites.of(cardWidth), pane, codes.length - 1,
+					Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Draws the cards of a tableau as strips.
+	 */
+	private void drawStrips(Graphics pane){
+		CardSprites sprites = CardSprites.of(cardWidth);
+		int height = cardWidth*3/2;
+		int size = codes.length;
+
+		//The rows of a covered card that may be seen: the strip above the next
+		//card, the corners of the next card, which are rounded, and the outline.
+		int strip = offsetY + height/10 + 1;
+
+		int i = 0; //The index of the next card to draw.
+		while(i < size && isHidden(i)){
+			i++;
+		}
+		if(i > 1){ //Then the face down cards are drawn as one run.
+			sprites.drawBacks(pane, i, offsetY, x - cardWidth/2, y - height/2,
+					i == size ? Integer.MAX_VALUE : (i - 1)*offsetY + strip);
+		} else {
+			i = 0;
+		}
+		for(; i < size; i++){
+			drawCard(sprites, pane, i, i == size - 1 ? Integer.MAX_VALUE : strip);
+		}
+	}
+
+	/**
+	 * Copies the top rows of the picture of the card at the given index.
+	 */
+	private void drawCard(CardSprites sprites, Graphics pane, int i, int rows){
+		int height = cardWidth*3/2;
+		sprites.draw(pane, codes[i] & ~Card.HIDDEN_BIT, isHidden(i),
+				x + i*offsetX - cardWidth/2, y + i*offsetY - height/2, rows);
+	}
+
+	/**
+	 * Determines whether the card at the given index is hidden.
+	 */
+	private boolean isHidden(int i){
+		return (codes[i] & Card.HIDDEN_BIT) != 0;
+	}
+
+	/**
+	 * Draws the shape of the next card in light gray, as
+	 * {@link StackOfCards#drawOutlineOfNextCard(Graphics)} does.
+	 */
+	private void drawOutlineOfNextCard(Graphics pane){
+		int width = cardWidth;
+		pane.setColor(Color.LIGHT_GRAY);
+		((Graphics2D)pane).fill(new RoundRectangle2D.Double(
+				x - width/2 - offsetX*codes.length,
+				y - width*3/4 + offsetY*codes.length,
+				width, width*3/2, width/10, width/10));
+	}
+}
\ No newline at end of file
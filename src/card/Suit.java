@@ -2,7 +2,9 @@ package card;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Image;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
 
@@ -26,55 +28,27 @@ import javax.imageio.ImageIO;
  * @author Warren Godone-Maresca
  */
 public enum Suit {
-	SPADES, HEARTS, DIAMONDS, CLUBS;
+	SPADES("spade.gif"), HEARTS("heart.gif"), 
+	DIAMONDS("diamond.gif"), CLUBS("club.gif");
 
-	/** Holds the symbol for this suit as an image.							*/
-	private Image symbol;
+	/** Holds the symbol for this suit as an image. It is read when the enum is
+	 *  initialized, which the JVM does once and safely for all threads.	*/
+	private final Image symbol;
 
-	/**
-	 * Four static {@link Image}s for each suit. They are static so that each
-	 * <code>Suit</code> instance doesn't have its own image in memory. These
-	 * variables are private because they may be <code>null</code> at some
-	 * point.
-	 */
-	private static Image SPADES_ICON, HEARTS_ICON, DIAMONDS_ICON, CLUBS_ICON;
+	/** Copies of the symbol scaled to each width that has been drawn, so that
+	 *  drawing the symbol is an unscaled copy. Negative widths are mirrored.	*/
+	private final ConcurrentHashMap<Integer, Image> scaledSymbols =
+			new ConcurrentHashMap<Integer, Image>();
 
 	/**
-	 * Constructor which sets the symbol for the suit.
+	 * Constructor which reads the symbol for the suit.
+	 * @param fileName The name of the symbol's image, next to this class.
 	 */
-	private Suit(){
-		setImages();
-	}
-
-	private void setImages(){
-		if(SPADES_ICON != null) //Then there is no need to read all images again
-			return;             //as they have already been read.
-		
+	private Suit(String fileName){
 		try {
-			SPADES_ICON = ImageIO.read(getClass().getResource("spade.gif"));
-			HEARTS_ICON = ImageIO.read(getClass().getResource("heart.gif"));
-			DIAMONDS_ICON = ImageIO.read(getClass().getResource("diamond.gif"));
-			CLUBS_ICON = ImageIO.read(getClass().getResource("club.gif"));
-		} catch(IOException e){}
-	}
-
-	/**
-	 * Sets the image for {@link #symbol} depending on this suit.
-	 */
-	private void setSymbol(){
-		switch(this){
-		case SPADES:
-			symbol = SPADES_ICON;
-			break;
-		case HEARTS:
-			symbol = HEARTS_ICON;
-			break;
-		case CLUBS:
-			symbol = CLUBS_ICON;
-			break;
-		case DIAMONDS:
-			symbol = DIAMONDS_ICON;
-			break;
+			symbol = ImageIO.read(Suit.class.getResource(fileName));
+		} catch(IOException e){
+			throw new IllegalStateException("Could not read " + fileName, e);
 		}
 	}
 
@@ -98,16 +72,44 @@ public enum Suit {
 	 * @param y The y coordinate of the center of the drawing.
 	 * @param width The width of the image. The height of the image is calculated
 	 * 			based on this width. Overall, the image will be roughly a square.
+	 * 			If it is negative, the image is drawn upside down.
 	 */
 	public void draw(Graphics pane, int x, int y, int width){
-		if(symbol == null){ //Then the symbol needs to be set.
-			setSymbol();
+		int height = heightOf(width);
+		if(width == 0 || height == 0){ //Then there is nothing to draw.
+			return;
 		}
+		Image image = scaledSymbols.get(width);
+		if(image == null){ //Then this is the first time the width is drawn.
+			image = scale(width, height);
+			scaledSymbols.putIfAbsent(width, image);
+		}
+
+		//The left and top edges of the image as it was drawn when scaled.
+		int left = x - width/2, top = y - height/2;
+		pane.drawImage(image, Math.min(left, left + width), 
+				Math.min(top, top + height), null);
+	}
 
+	/**
+	 * Returns the height of the symbol when it is drawn with the given width.
+	 */
+	private int heightOf(int width){
 		double scale = width * 1.0 / symbol.getWidth(null); //To scale the image
-		int height = (int)(symbol.getHeight(null) * scale); //to the given size.
+		return (int)(symbol.getHeight(null) * scale);		//to the given size.
+	}
 
-		//Draws the image
-		pane.drawImage(symbol, x - width/2, y - height/2, width, height, null);
+	/**
+	 * Returns a copy of the symbol scaled to the given width and height. If
+	 * they are negative, the copy is mirrored in that direction.
+	 */
+	private Image scale(int width, int height){
+		BufferedImage image = CardSprites.createImage(Math.abs(width), 
+				Math.abs(height));
+		Graphics pane = image.createGraphics();
+		pane.drawImage(symbol, width < 0 ? -width : 0, height < 0 ? -height : 0,
+				width, height, null);
+		pane.dispose();
+		return image;
 	}
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package card;
 
-import dataStructures.Stack;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import dataStructures.ArrayStack;
 
 /**
  * A {@link StackOfCards} with operations based on tableaux in common forms of
@@ -10,10 +13,28 @@ import dataStructures.Stack;
  * <p>
  * Note: Tableaux are expected to have a positive offset in the y direction but 
  * no offset x direction.
+ * <p>
+ * A tableau keeps track of the runs of cards at its top as cards are pushed and
+ * popped, so that how many cards may be moved and whether the tableau is sorted
+ * can be answered in O(1) time. For each card, the lengths of three runs ending
+ * at that card are kept: the face up cards, the face up cards in sequence, and
+ * the face up cards in sequence that alternate in color. Only the top card is
+ * expected to be flipped (see {@link #setTopHidden(boolean)}); the runs are
+ * updated for it when they are next read.
  * 
  * @author Warren Godone-Maresca
  */
 public class Tableau extends StackOfCards {
+	/** The number of face up cards ending at each card.					*/
+	private int[] faceUpRuns = new int[elements.length];
+
+	/** The number of face up cards in sequence ending at each card.		*/
+	private int[] sequenceRuns = new int[elements.length];
+
+	/** The number of face up cards in sequence and alternating in color
+	 *  ending at each card.												*/
+	private int[] alternatingRuns = new int[elements.length];
+
 	/**
 	 * Instantiates an empty stack where all cards will have
 	 * no size and positioned at the origin.
@@ -36,35 +57,31 @@ public class Tableau extends StackOfCards {
 		super(x, y, cardWidth, 0, offsetY);
 	}
 
+	/**
+	 * Returns the number of cards below and containing the given y coordinate
+	 * if the tableau contains the y coordinate.
+	 * @param y The given y coordinate.
+	 * @return The number of cards, or 0 if the tableau does not contain y.
+	 */
+	public int numOfCardsBelow(int y){
+		int index = cardIndexAt(x, y); //The card at the center of the tableau.
+		return index < 0 ? 0 : size - index;
+	}
+
 	/**
 	 * Pops all cards below and containing the given y coordinate if the tableau
 	 * contains the y coordinate.
 	 * @param y The given y coordinate.
-	 * @return All cards below the given y coordinate in a {@link Stack} if the 
+	 * @return All cards below the given y coordinate in an {@link ArrayStack} if the
 	 * 		   tableau contains y else <code>null</code>.
 	 */
-	public Stack<Card> popCardsBelow(int y){
-		if(!contains(this.x, y)) //Then y is not in the boundaries of this stack,
-			return null;		//so null is returned.
-
-		//Holds the cards to be returned.
-		Stack<Card> temp = new Stack<Card>();
-
-		int numOfCards = 1;  //One card is added to temp to start with.
-		while(!peek().contains(x, y + (numOfCards-1)*offsetY) &&
-				numOfCards <= size){ //counts the num.
-			numOfCards++;    			//of cards below the given y coordinate
-			//System.out.println(peek().contains(x, y));
-			//System.out.println(y + " " + peek().getY() + " " + this.shapeOfNextCard().getCenterY());
-			//System.out.println(numOfCards + " will be popped");//TODO
-		}
-
-		for(int i = 0; i < numOfCards; i++){//Move numOfCards cards from this
-			temp.push(pop());				//stack to temp.
+	public ArrayStack<Card> popCardsBelow(int y){
+		int numOfCards = numOfCardsBelow(y);
+		if(numOfCards == 0){ //Then y is not in the boundaries of this stack,
+			return null;	 //so null is returned.
 		}
-
-		temp.reverse(); //Because cards were added out of order.
-		return temp;
+		//Moves numOfCards cards from this stack to a new stack in order.
+		return popRange(numOfCards);
 	}
 
 	/**
@@ -80,22 +97,139 @@ public class Tableau extends StackOfCards {
 	 * and the cards will not be removed.
 	 * @param y The y coordinate of the first card to be popped. Must be within
 	 * 			the boundaries of the stack.
-	 * @return A {@link Stack} containing the all cards below the given
+	 * @return An {@link ArrayStack} containing the all cards below the given
 	 * 			y if the above conditioned are met, otherwise <code>null</code>.
 	 */
-	public Stack<Card> popSuitableCardsBelow(int y){
-		Stack<Card> temp = popCardsBelow(y);
-		if(temp == null || !isSuitable(temp)){
-			//If temp is not suitable, then its cards should not be removed, 
-			appendStack(temp); //so we append them back to this stack and
-			return null;       //return null.
+	public ArrayStack<Card> popSuitableCardsBelow(int y){
+		int numOfCards = numOfCardsBelow(y);
+		if(numOfCards == 0 || numOfCards > alternatingRun()){
+			return null; //The cards are not suitable, so they are not removed.
+		}
+		return popRange(numOfCards);
+	}
+
+	/**
+	 * Returns the number of face up cards at the top of this tableau.
+	 */
+	public int faceUpRun(){
+		return run(faceUpRuns);
+	}
+
+	/**
+	 * Returns the number of face up cards at the top of this tableau that are in
+	 * sequence, that is, each card's value is one less than that of the card
+	 * below it.
+	 */
+	public int sequenceRun(){
+		return run(sequenceRuns);
+	}
+
+	/**
+	 * Returns the number of face up cards at the top of this tableau that are in
+	 * sequence and alternate in color. These are the cards that may be moved
+	 * together in Klondike.
+	 */
+	public int alternatingRun(){
+		return run(alternatingRuns);
+	}
+
+	/**
+	 * Adds <code>card</code> to the top of this tableau and extends the runs.
+	 * See {@link StackOfCards#push(Card)}.
+	 */
+	@Override
+	public void push(Card card){
+		refreshTop(); //In case the top card was flipped.
+		super.push(card);
+		updateRuns(size - 1);
+	}
+
+	/**
+	 * Reverses the tableau and recomputes the runs.
+	 */
+	@Override
+	public void reverse(){
+		super.reverse();
+		updateRuns();
+	}
+
+	/**
+	 * Shuffles the tableau and recomputes the runs.
+	 */
+	@Override
+	public void shuffle(RandomGenerator random){
+		super.shuffle(random);
+		updateRuns();
+	}
+
+	/**
+	 * Grows the run arrays along with the array of cards.
+	 */
+	@Override
+	public void ensureCapacity(int capacity){
+		super.ensureCapacity(capacity);
+		if(faceUpRuns.length < elements.length){
+			faceUpRuns = Arrays.copyOf(faceUpRuns, elements.length);
+			sequenceRuns = Arrays.copyOf(sequenceRuns, elements.length);
+			alternatingRuns = Arrays.copyOf(alternatingRuns, elements.length);
+		}
+	}
+
+	/**
+	 * Returns the length of the run ending at the top card from the given array.
+	 */
+	private int run(int[] runs){
+		if(isEmpty()){
+			return 0;
+		}
+		refreshTop();
+		return runs[size - 1];
+	}
+
+	/**
+	 * Recomputes the runs of the top card if it was flipped since they were
+	 * computed. A card's face up run is 0 exactly when it is hidden.
+	 */
+	private void refreshTop(){
+		if(!isEmpty() && isHidden(size - 1) != (faceUpRuns[size - 1] == 0)){
+			updateRuns(size - 1);
+		}
+	}
+
+	/**
+	 * Recomputes the runs of every card.
+	 */
+	private void updateRuns(){
+		for(int i = 0; i < size; i++){
+			updateRuns(i);
+		}
+	}
+
+	/**
+	 * Computes the runs ending at the card at the given index from the runs of
+	 * the card below it.
+	 */
+	private void updateRuns(int i){
+		Card card = elementAt(i);
+		if(isHidden(i)){ //Then no run includes the card.
+			faceUpRuns[i] = sequenceRuns[i] = alternatingRuns[i] = 0;
+
+		} else if(i == 0 || faceUpRuns[i - 1] == 0){ //Then a new run starts.
+			faceUpRuns[i] = sequenceRuns[i] = alternatingRuns[i] = 1;
+
 		} else {
-			return temp;	   //Otherwise temp is returned.
+			Card below = elementAt(i - 1);
+			boolean inSequence = below.compareTo(card) == 1;
+
+			faceUpRuns[i] = faceUpRuns[i - 1] + 1;
+			sequenceRuns[i] = inSequence ? sequenceRuns[i - 1] + 1 : 1;
+			alternatingRuns[i] = inSequence && !below.colorEquals(card) 
+					? alternatingRuns[i - 1] + 1 : 1;
 		}
 	}
 
 	/**
-	 * Unlike {@link #appendStack(dataStructures.Stack)}, this will only append 
+	 * Unlike {@link #appendStack(ArrayStack)}, this will only append 
 	 * the stack if all cards in <code>stack</code> are sequentially increasing
 	 * in value from the top and alternate in color. Otherwise an exception will
 	 * be thrown. This is a common operation in many Solitaires for moving cards
@@ -105,8 +239,8 @@ public class Tableau extends StackOfCards {
 	 * @throws 	IllegalArgumentException if the cards in <code>stack</code> aren't
 	 * 			sequentially increasing in value from the top and alternate in color.
 	 */
-	public void appendSuitableCards(Stack<Card> stack){
-		Card bottom = stack.reverseCopy().pop();
+	public void appendSuitableCards(ArrayStack<Card> stack){
+		Card bottom = stack.peekBottom();
 
 		/* Checks if:
 		 * -the given stack alternates in color.
@@ -132,7 +266,7 @@ public class Tableau extends StackOfCards {
 	 * @return 	<code>true</code> if the given stack is suitable,
 	 * 			else <code>false</code>.
 	 */
-	public static boolean isSuitable(Stack<Card> stack){
+	public static boolean isSuitable(ArrayStack<Card> stack){
 		return alternatesInColor(stack) && inSequence(stack) && isVisible(stack);
 	}
 
@@ -143,37 +277,29 @@ public class Tableau extends StackOfCards {
 	 * @return <code>true</code> if all no two adjacent
 	 * 		   cards have the same color, else <code>false</code>.
 	 */
-	public static boolean alternatesInColor(Stack<Card> stack){
-		if(stack.size() < 2){//Simple case
-			return true;
-		}
-
-		//Temporary stack in which elements will be removed to be checked. Another
-		Stack<Card> copy = stack.copy();//stack is made to maintain the original
-		Card toCompare = copy.pop(); //To compare against other elements.
-
-		while(!copy.isEmpty()){
-			Card current = copy.pop(); //To compare against toCompare.
-			//If they have the same color or current is hidden
-			if(current.colorEquals(toCompare)){
-				return false; //then return false.
+	public static boolean alternatesInColor(ArrayStack<Card> stack){
+		//Each card is compared with the card below it.
+		for(int i = 1; i < stack.size(); i++){
+			if(stack.get(i).colorEquals(stack.get(i - 1))){
+				return false; //They have the same color.
 			}
-			toCompare = current; //update toCompare.
 		}
 		return true; //If we have reached this point, then stack is suitable.
 	}
 	
 	/**
-	 * Determines if all cards in the stack are visible and alternate in color.
-	 * (the colors are ignored if any card is hidden).
+	 * Determines if all cards in the stack are visible. Only a
+	 * {@link StackOfCards} may hide its cards; the cards of any other stack
+	 * are face up.
 	 * @param stack the stack to be checked.
-	 * @return <code>true</code> if all no two adjacent
-	 * 		   cards have the same color, else <code>false</code>.
+	 * @return <code>true</code> if no card is hidden, else <code>false</code>.
 	 */
-	public static boolean isVisible(Stack<Card> stack){
-		Stack<Card> copy = stack.copy();
-		while(!copy.isEmpty()){
-			if(copy.pop().isHidden()){
+	public static boolean isVisible(ArrayStack<Card> stack){
+		if(!(stack instanceof StackOfCards)){
+			return true;
+		}
+		for(int i = 0; i < stack.size(); i++){
+			if(((StackOfCards)stack).isHidden(i)){
 				return false;
 			}
 		}
@@ -187,22 +313,12 @@ public class Tableau extends StackOfCards {
 	 * @return 	<code>true</code> if the given stack is in sequence, 
 	 * 			else <code>false</code>.
 	 */
-	public static boolean inSequence(Stack<Card> stack){
-		if(stack.size() < 2){//Simple case
-			return true;
-		}
-
-		//Temporary stack in which elements will be removed to be checked. Another
-		Stack<Card> copy = stack.copy();//stack is made to maintain the original
-		Card toCompare = copy.pop(); //To compare against other elements.
-
-		while(!copy.isEmpty()){
-			Card current = copy.pop(); //To compare against toCompare.
-			//If they aren't sequentially ordered:
-			if(current.compareTo(toCompare) != 1){
-				return false; //then return false.
+	public static boolean inSequence(ArrayStack<Card> stack){
+		//Each card must be one less than the card below it.
+		for(int i = 1; i < stack.size(); i++){
+			if(stack.get(i - 1).compareTo(stack.get(i)) != 1){
+				return false; //They aren't sequentially ordered.
 			}
-			toCompare = current; //update toCompare.
 		}
 		return true; //If we have reached this point, then stack is in sequence.
 	}
@@ -0,0 +1,341 @@
+package dataStructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Warren Godone-Maresca<p>
+ *
+ * An array based implementation of a stack. It has the same operations as
+ * {@link Stack} (push, pop, peek, size, copy, reverse, and clear) but the
+ * elements are held in one contiguous, growable array rather than in a chain of
+ * nodes. So pushing an element does not allocate anything unless the array has
+ * to grow, and reversing is done in place.<p>
+ *
+ * Additionally, elements can be accessed by their index from the bottom of the
+ * stack, and ranges of elements can be pushed or popped in bulk. Iterating over
+ * the stack visits the elements from the top to the bottom, and
+ * {@link #bottomUp()} visits them in the other direction. Neither copies the
+ * stack.
+ *
+ * @param <T> The data type of objects to be held in this stack.
+ */
+public class ArrayStack<T> implements StackADT<T>, Iterable<T> {
+	/** The initial capacity of a stack if no capacity is given.			*/
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Holds the elements of the stack. The bottom element is at index 0 and
+	 *  the top element is at index size - 1.								*/
+	protected Object[] elements;
+
+	/** Holds the number of elements in the stack.							*/
+	protected int size = 0;
+
+	/**
+	 * Instantiates an empty stack with a default capacity.
+	 */
+	public ArrayStack(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates an empty stack that can hold the given number of elements
+	 * before it needs to grow.
+	 * @param capacity The initial capacity.
+	 * @throws IllegalArgumentException if <code>capacity</code> < 0.
+	 */
+	public ArrayStack(int capacity){
+		if(capacity < 0){
+			throw new IllegalArgumentException("Negative capacity.");
+		}
+		elements = new Object[capacity];
+	}
+
+	/**
+	 * Adds the given value to the top of the stack.
+	 */
+	public void push(T value){
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+	}
+
+	/**
+	 * Returns and removes the top (most recently added) element of the stack if
+	 * such an element exists.
+	 * @return 	If this stack is not empty, the element at the top of the stack,
+	 * 			otherwise, null.
+	 */
+	public T pop(){
+		if(isEmpty()){ //Then there is nothing to pop.
+			return null;
+		}
+		T temp = elementAt(--size);
+		elements[size] = null; //So that the element may be garbage collected.
+		return temp;
+	}
+
+	/**
+	 * Returns the top element of the stack if such an element exists.
+	 * @return 	If this stack is not empty, the element at the top of the stack,
+	 * 			otherwise, null.
+	 */
+	public T peek(){
+		if(isEmpty()){
+			return null;
+		}
+		return elementAt(size - 1);
+	}
+
+	/**
+	 * Returns the bottom element of the stack (the element that was added
+	 * before all others) if such an element exists.
+	 * @return 	If this stack is not empty, the element at the bottom of the
+	 * 			stack, otherwise, null.
+	 */
+	public T peekBottom(){
+		if(isEmpty()){
+			return null;
+		}
+		return elementAt(0);
+	}
+
+	/**
+	 * Returns the element at the given position counted from the bottom of the
+	 * stack. The bottom element has index 0 and the top has index size() - 1.
+	 * @param index The position of the element.
+	 * @throws IndexOutOfBoundsException if <code>index</code> < 0 OR
+	 * 										<code>index</code> >= size().
+	 */
+	public T get(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		return elementAt(index);
+	}
+
+	/**
+	 * Determines whether or not the stack is empty.
+	 * @return 	<code>true</code> if the stack has no elements, otherwise
+	 * 			<code>false</code>
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements from the stack. The capacity is kept.
+	 */
+	public void clear(){
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of elements in the stack.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Reverses the order of all elements in the stack in place. This stack will
+	 * be modified as a result.
+	 */
+	public void reverse(){
+		for(int i = 0, j = size - 1; i < j; i++, j--){
+			Object temp = elements[i];
+			elements[i] = elements[j];
+			elements[j] = temp;
+		}
+	}
+
+	/**
+	 * Returns a shallow copy of this stack with the elements in reversed order.
+	 */
+	public ArrayStack<T> reverseCopy(){
+		ArrayStack<T> temp = copy();
+		temp.reverse();
+		return temp;
+	}
+
+	/**
+	 * Returns a shallow copy of this stack in which the order of the elements is
+	 * preserved.
+	 */
+	public ArrayStack<T> copy(){
+		ArrayStack<T> temp = new ArrayStack<T>(size);
+		System.arraycopy(elements, 0, temp.elements, 0, size);
+		temp.size = size;
+		return temp;
+	}
+
+	/**
+	 * Appends a given stack to this stack. The top element of the given stack
+	 * will be the top element in this stack after this method is called. The order
+	 * of all elements of the given stack will be preserved in this stack. The
+	 * bottom element of the given stack will be on top of the previous
+	 * top element of this stack.<p>
+	 *
+	 * Additionally, the given stack object will be unmodified. The objects will
+	 * not be copied and shall be contained in both stacks.
+	 *
+	 * @param stack The stack to be appended to this stack.
+	 */
+	public void appendStack(ArrayStack<T> stack){
+		if(stack == null || stack.isEmpty()){
+			return;
+		}
+		appendRange(stack, 0, stack.size());
+	}
+
+	/**
+	 * Pushes the elements of the given stack from index <code>from</code>
+	 * (inclusive) to index <code>to</code> (exclusive) onto this stack, from the
+	 * bottom up. The given stack is unmodified.<p>
+	 *
+	 * Each element is added with {@link #push(Object)} so that subclasses that
+	 * override push see every element.
+	 *
+	 * @param stack The stack holding the elements.
+	 * @param from	The index of the first element to push.
+	 * @param to	One past the index of the last element to push.
+	 * @throws IndexOutOfBoundsException if the range is not within the stack.
+	 */
+	public void appendRange(ArrayStack<T> stack, int from, int to){
+		if(from < 0 || to > stack.size() || from > to){
+			throw new IndexOutOfBoundsException("Range: " + from + " to " + to);
+		}
+		ensureCapacity(size + to - from);
+		//The given stack may be this stack, so its elements are read by index
+		//before each push rather than through its size.
+		for(int i = from; i < to; i++){
+			push(stack.elementAt(i));
+		}
+	}
+
+	/**
+	 * Removes the top <code>count</code> elements from this stack and returns
+	 * them in a new stack in the same order, that is, the top element of this
+	 * stack will be the top element of the returned stack.
+	 * @param count The number of elements to pop.
+	 * @return A new stack with the popped elements.
+	 * @throws IndexOutOfBoundsException if <code>count</code> < 0 OR
+	 * 										<code>count</code> > size().
+	 */
+	public ArrayStack<T> popRange(int count){
+		ArrayStack<T> temp = new ArrayStack<T>(count);
+		popRange(count, temp);
+		return temp;
+	}
+
+	/**
+	 * Removes the top <code>count</code> elements from this stack and pushes
+	 * them onto the given stack in the same order.
+	 * @param count 		The number of elements to pop.
+	 * @param destination	The stack to receive the elements.
+	 * @throws IndexOutOfBoundsException if <code>count</code> < 0 OR
+	 * 										<code>count</code> > size().
+	 */
+	public void popRange(int count, ArrayStack<T> destination){
+		if(count < 0 || count > size){
+			throw new IndexOutOfBoundsException("Count: " + count);
+		}
+		destination.appendRange(this, size - count, size);
+		Arrays.fill(elements, size - count, size, null);
+		size -= count;
+	}
+
+	/**
+	 * Grows the backing array, if needed, so that it can hold at least the given
+	 * number of elements.
+	 * @param capacity The minimum capacity.
+	 */
+	public void ensureCapacity(int capacity){
+		if(capacity > elements.length){
+			//The capacity is at least doubled so that pushing is amortized O(1).
+			elements = Arrays.copyOf(elements,
+					Math.max(capacity, Math.max(2 * elements.length, 4)));
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements from the top of the stack to the
+	 * bottom. The stack must not be modified during the iteration.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new Cursor(true);
+	}
+
+	/**
+	 * Returns an {@link Iterable} whose iterators visit the elements from the
+	 * bottom of the stack to the top. The stack must not be modified during the
+	 * iteration.
+	 */
+	public Iterable<T> bottomUp(){
+		return new Iterable<T>(){
+			public Iterator<T> iterator(){
+				return new Cursor(false);
+			}
+		};
+	}
+
+	/**
+	 * Returns the element at the given index without checking the bounds.
+	 */
+	@SuppressWarnings("unchecked")
+	protected T elementAt(int index){
+		return (T)elements[index];
+	}
+
+	/**
+	 * An iterator that walks the array by index in either direction. next() and
+	 * hasNext() are supported but remove() is not.
+	 */
+	private class Cursor implements Iterator<T> {
+		/** The index of the next element of the iteration.					*/
+		private int index;
+
+		/** Whether the iteration goes from the top to the bottom.			*/
+		private final boolean topDown;
+
+		/**
+		 * Instantiates the cursor at the top or the bottom of the stack.
+		 * @param topDown Whether to iterate from the top to the bottom.
+		 */
+		private Cursor(boolean topDown){
+			this.topDown = topDown;
+			index = topDown ? size - 1 : 0;
+		}
+
+		/**
+		 * Determines whether or not there are any more elements in this iteration.
+		 */
+		@Override
+		public boolean hasNext(){
+			return topDown ? index >= 0 : index < size;
+		}
+
+		/**
+		 * Returns the next element in the iteration.
+		 * @throws NoSuchElementException if there are no elements to iterate.
+		 */
+		@Override
+		public T next(){
+			if(!hasNext()){
+				throw new NoSuchElementException();
+			}
+			return elementAt(topDown ? index-- : index++);
+		}
+
+		/**
+		 * Unsupported. Elements can only be removed from the top of a stack.
+		 * @throws UnsupportedOperationException when called.
+		 */
+		@Override
+		public void remove(){
+			throw new UnsupportedOperationException("Not Supported");
+		}
+	}
+}
\ No newline at end of file
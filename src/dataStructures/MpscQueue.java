@@ -0,0 +1,106 @@
+package dataStructures;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free, multi-producer single-consumer queue. Any number of threads may
+ * enqueue elements at the same time, but only one thread, the consumer, may
+ * dequeue them. Elements are removed in the order in which they were added by
+ * each thread.
+ * <p>
+ * Enqueuing never blocks or waits for another thread: the producer atomically
+ * swaps itself in as the new tail and then links the previous tail to it. So
+ * for a moment after an enqueue, the consumer may still see the queue as empty.
+ * The consumer will see the element on a later call.
+ * <p>
+ * The consumer typically drains this queue into its own {@link Queue} with
+ * {@link #drainTo(Queue)} and then works on that queue without synchronization.
+ *
+ * @author Warren Godone-Maresca
+ *
+ * @param <T> The type of this queue's elements.
+ */
+public class MpscQueue<T> {
+	/** The node most recently added. Shared by all producers.				*/
+	private final AtomicReference<Node<T>> tail;
+
+	/** The node before the front element. Only used by the consumer.		*/
+	private Node<T> head;
+
+	/**
+	 * Instantiates the queue with no elements.
+	 */
+	public MpscQueue(){
+		head = new Node<T>(null); //An empty node that the front element follows.
+		tail = new AtomicReference<Node<T>>(head);
+	}
+
+	/**
+	 * Adds the given value to the queue. This may be called by any thread.
+	 * @param value The object to be added.
+	 */
+	public void enqueue(T value){
+		Node<T> node = new Node<T>(value);
+		Node<T> previous = tail.getAndSet(node); //Claims the tail,
+		previous.next = node;					 //then links it.
+	}
+
+	/**
+	 * Removes and returns the front element. Must only be called by the consumer.
+	 * @return That element if one is visible, else <code>null</code>.
+	 */
+	public T dequeue(){
+		Node<T> next = head.next;
+		if(next == null){ //Then nothing has been linked after the head.
+			return null;
+		}
+		T value = next.value;
+		next.value = null; //next becomes the empty head node.
+		head = next;
+		return value;
+	}
+
+	/**
+	 * Determines whether or not any elements are visible to the consumer. Must
+	 * only be called by the consumer.
+	 */
+	public boolean isEmpty(){
+		return head.next == null;
+	}
+
+	/**
+	 * Moves all visible elements, in order, to the end of the given queue. Must
+	 * only be called by the consumer.
+	 * @param queue The queue to receive the elements.
+	 * @return The number of elements moved.
+	 */
+	public int drainTo(Queue<T> queue){
+		int count = 0;
+		for(Node<T> next = head.next; next != null; next = head.next){
+			queue.enqueue(next.value);
+			next.value = null;
+			head = next;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * A node to contain an element and point to the next node in the queue.
+	 */
+	private static class Node<T> {
+		/** The object held by this node.									*/
+		private T value;
+
+		/** The next node in the queue. It is volatile so that the consumer
+		 *  sees the node, and its value, once a producer links it.			*/
+		private volatile Node<T> next;
+
+		/**
+		 * Instantiates the node with a object value.
+		 */
+		private Node(T value){
+			this.value = value;
+		}
+	}
+}
\ No newline at end of file
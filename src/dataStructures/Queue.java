@@ -1,36 +1,58 @@
 package dataStructures;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
- * An iterable stack implementation of a queue. Elements are removable and 
- * accessible in the order in which they where added.
- * 
+ * An iterable, circular array implementation of a queue. Elements are removable
+ * and accessible in the order in which they where added. Enqueuing and
+ * dequeuing are O(1) (enqueuing is amortized as the array may have to grow).
+ * <p>
+ * This class is not thread safe. To pass elements from several threads to the
+ * thread that owns a queue, use a {@link MpscQueue} and drain it into the queue.
+ *
  * @author Warren Godone-Maresca
  *
  * @param <T> The type of this queue's elements.
  */
 public class Queue<T> implements Iterable<T> {
+	/** The initial capacity of a queue.									*/
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** The elements of this queue. The front element is at index head and the
+	 *  others follow it, wrapping around to index 0 at the end of the array.
+	 *  The length is always a power of two so that indices can be masked.	*/
+	private Object[] elements;
+
+	/** The index of the front element.										*/
+	private int head;
+
+	/** The number of elements in the queue.								*/
+	private int size;
+
+	/** Counts the changes to this queue so that iterators can detect them.	*/
+	private int modCount;
 
-	/** The elements of this queue.											 */
-	private Stack<T> elements;
-	
 	/**
 	 * Instantiates the queue with no elements
 	 */
 	public Queue(){
-		elements = new Stack<T>();
+		elements = new Object[DEFAULT_CAPACITY];
 	}
-	
+
 	/**
 	 * Adds the given value to the queue.
 	 * @param value The object to be added.
 	 */
 	public void enqueue(T value){
-		elements.reverse();	 //First we reverse the elements so that the new 
-		elements.push(value);//element will be at the bottom of the stack.
-		elements.reverse();  //Then reverse again to put the elements in order.
+		if(size == elements.length){ //Then there is no room for the value.
+			grow();
+		}
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+		modCount++;
 	}
 
 	/**
@@ -38,73 +60,131 @@ public class Queue<T> implements Iterable<T> {
 	 * @return That element if this queue is not empty, else <code>null</code>
 	 */
 	public T dequeue(){
-		return elements.pop();
+		if(isEmpty()){
+			return null;
+		}
+		T temp = elementAt(head);
+		elements[head] = null; //So that the element may be garbage collected.
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		return temp;
 	}
-	
+
 	/**
 	 * Returns the element that was added before all others.
 	 * @return That element if this queue is not empty, else <code>null</code>
 	 */
 	public T peek(){
-		return elements.peek();
+		if(isEmpty()){
+			return null;
+		}
+		return elementAt(head);
 	}
-	
+
+	/**
+	 * Returns the element at the given position in the queue. The front element
+	 * has index 0.
+	 * @param index The position of the element.
+	 * @throws IndexOutOfBoundsException if <code>index</code> < 0 OR
+	 * 										<code>index</code> >= size().
+	 */
+	public T get(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		return elementAt((head + index) & (elements.length - 1));
+	}
+
 	/**
 	 * Returns the number of elements in the queue.
 	 */
 	public int size(){
-		return elements.size();
+		return size;
 	}
-	
+
 	/**
 	 * Determines whether or not this queue contains any elements.
 	 */
 	public boolean isEmpty(){
-		return elements.isEmpty();
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements from the queue.
+	 */
+	public void clear(){
+		Arrays.fill(elements, null);
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Doubles the length of the array and moves the elements so that the front
+	 * element is at index 0.
+	 */
+	private void grow(){
+		Object[] larger = new Object[elements.length * 2];
+		int firstPart = elements.length - head; //Elements before the wrap.
+		System.arraycopy(elements, head, larger, 0, firstPart);
+		System.arraycopy(elements, 0, larger, firstPart, head);
+		elements = larger;
+		head = 0;
+	}
+
+	/**
+	 * Returns the element at the given array index.
+	 */
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index){
+		return (T)elements[index];
 	}
 
 	/**
-	 * Returns a new iterator for this queue.
+	 * Returns a new iterator for this queue. The iterator reads the queue's
+	 * array directly, so the elements are not copied.
 	 */
 	@Override
 	public Iterator<T> iterator(){
 		return new QueueIterator();
 	}
-	
+
 	/**
 	 * An iterator for this queue. next() and hasNext() are supported but remove()
 	 * is not as elements may not be removed from the middle of a queue.
 	 */
 	private class QueueIterator implements Iterator<T> {
-		/** The elements in this iteration.									*/
-		private Stack<T> stack;
-		
-		/**
-		 * Instantiates a new iterator.
-		 */
-		public QueueIterator(){
-			stack = elements.copy();
-		}
-		
+		/** The position of the next element of the iteration.				*/
+		private int index;
+
+		/** The modCount of the queue when this iterator was made.			*/
+		private final int expectedModCount = modCount;
+
 		/**
 		 * Determines whether or not there are any more elements in this iteration.
 		 * @return <code>true</code> if the iteration has more elements. (i.e.
-		 * 		  returns true if {@link #next()} would return an object rather 
+		 * 		  returns true if {@link #next()} would return an object rather
 		 * 		  than throwing an exception.)
 		 */
 		@Override
 		public boolean hasNext(){
-			return !stack.isEmpty();
+			return index < size;
 		}
 
 		/**
 		 * Returns the next element in the iteration.
 		 * @throws NoSuchElementException if there are no elements to iterate.
+		 * @throws ConcurrentModificationException if the queue was modified
+		 * 			since this iterator was made.
 		 */
 		@Override
 		public T next(){
+			if(modCount != expectedModCount){
+				throw new ConcurrentModificationException();
+			}
 			if(hasNext()){
-				return stack.pop();
+				return get(index++);
 			} else {
 				throw new NoSuchElementException();
 			}
@@ -1,18 +1,26 @@
 package dataStructures;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * @author Warren Godone-Maresca<p>
  * 
  * An implementation of a standard stack data type. It has operations for standard
  * stack operations, push, pop, and peek, as well as some additional methods for
- * to check the size, copy, reverse, and clear the stack.
+ * to check the size, copy, reverse, and clear the stack. Iterating over the
+ * stack visits the elements from the top to the bottom without modifying or
+ * copying the stack.
  *
  * @param <T> The data type of objects to be held in this stack.
  */
-public class Stack<T> implements StackADT<T> {
+public class Stack<T> implements StackADT<T>, Iterable<T> {
 	/** Points to the node that contains the top element of the stack.		*/
 	protected Node<T> head;
 
+	/** Points to the node that contains the bottom element of the stack.	*/
+	private Node<T> bottom;
+
 	/** Holds the number of elements in the stack.							*/
 	protected int size = 0;
 
@@ -27,6 +35,7 @@ public class Stack<T> implements StackADT<T> {
 	public void push(T value){
 		if(head == null){ //Then we create a new head.
 			head = new Node<T>(value, null);
+			bottom = head; //which is also the bottom.
 		} else { //we insert a new node before head.
 			Node<T> latest = new Node<T>(value, head);
 			head = latest;
@@ -47,6 +56,9 @@ public class Stack<T> implements StackADT<T> {
 		size--;
 		T temp = head.getValue(); //Holds the object to return
 		head = head.getNext();
+		if(head == null){ //Then the stack is empty.
+			bottom = null;
+		}
 		return temp;
 	}
 
@@ -62,6 +74,19 @@ public class Stack<T> implements StackADT<T> {
 		return head.getValue();
 	}
 
+	/**
+	 * Returns the bottom element of the stack (the element that was added
+	 * before all others) if such an element exists.
+	 * @return 	If this stack is not empty, the element at the bottom of the
+	 * 			stack, otherwise, null.
+	 */
+	public T peekBottom(){
+		if(isEmpty()){
+			return null;
+		}
+		return bottom.getValue();
+	}
+
 	/**
 	 * Determines whether or not the stack is empty.
 	 * @return 	<code>true</code> if the stack has no elements, otherwise
@@ -76,6 +101,7 @@ public class Stack<T> implements StackADT<T> {
 	 */
 	public void clear(){
 		head = null;
+		bottom = null;
 		size = 0;
 	}
 
@@ -91,22 +117,16 @@ public class Stack<T> implements StackADT<T> {
 	 * modified as a result.
 	 */
 	public void reverse(){
-		reverse(head, null);//There are no nodes before the head so we pass null.
-	}
-
-	/**
-	 * Reverse the order of all nodes after <code>node</code>.
-	 * @param node The node to begin the reversal.
-	 * @param prev The node below <code>node</code>.
-	 */
-	private void reverse(Node<T> node, Node<T> prev){
-		if(node != null){ //condition to recurse.
-			reverse(node.getNext(), node); //Reverse the rest of the stack.
-			if(node.getNext() == null){ // Then it is the new head
-				head = node;
-			}
+		bottom = head; //The old head will be the new bottom.
+		Node<T> prev = null; //The nodes before node have already been reversed.
+		Node<T> node = head;
+		while(node != null){ //Each node is pointed back to the node before it.
+			Node<T> next = node.getNext();
 			node.setNext(prev);
+			prev = node;
+			node = next;
 		}
+		head = prev; //The old bottom node is the new head.
 	}
 
 	/**
@@ -155,6 +175,56 @@ public class Stack<T> implements StackADT<T> {
 		}
 	}
 
+	/**
+	 * Returns an iterator over the elements from the top of the stack to the
+	 * bottom. The stack is not copied, so it must not be modified during the
+	 * iteration.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new StackIterator();
+	}
+
+	/**
+	 * An iterator that follows the nodes from the head. next() and hasNext()
+	 * are supported but remove() is not.
+	 */
+	private class StackIterator implements Iterator<T> {
+		/** The node holding the next element of the iteration.				*/
+		private Node<T> node = head;
+
+		/**
+		 * Determines whether or not there are any more elements in this iteration.
+		 */
+		@Override
+		public boolean hasNext(){
+			return node != null;
+		}
+
+		/**
+		 * Returns the next element in the iteration.
+		 * @throws NoSuchElementException if there are no elements to iterate.
+		 */
+		@Override
+		public T next(){
+			if(node == null){
+				throw new NoSuchElementException();
+			}
+			T value = node.getValue();
+			node = node.getNext();
+			return value;
+		}
+
+		/**
+		 * Unsupported. Elements can only be removed from the top of a stack.
+		 * @throws UnsupportedOperationException when called.
+		 */
+		@Override
+		public void remove(){
+			throw new UnsupportedOperationException("Not Supported");
+		}
+	}
+
 	/**
 	 * A node class to contain an element and point to the next node in the stack.
 	 */
@@ -0,0 +1,100 @@
+package solitaire;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+
+/**
+ * Something that the {@link AnimationScheduler} moves one step on each tick,
+ * such as a {@link StackOfCardsAnimator} or a {@link GroupAnimator}, until it
+ * is over.
+ *
+ * @author Warren Godone-Maresca
+ */
+abstract class Animation {
+	/** The component to be repainted, or <code>null</code>.				*/
+	private final Component component;
+
+	/** Counts this animation and its repaints, or <code>null</code>.		*/
+	private final PerformanceMetrics metrics;
+
+	/** The game whose stacks are moved, or <code>null</code>.				*/
+	private final Klondike game;
+
+	/**
+	 * Instantiates the animation, counting it as a running animator in the
+	 * metrics until it is over.
+	 * @param component	The component to be repainted, or <code>null</code>.
+	 * @param metrics	The metrics of the game, or <code>null</code>.
+	 */
+	Animation(Component component, PerformanceMetrics metrics){
+		this(component, metrics, null);
+	}
+
+	/**
+	 * Instantiates the animation of stacks of a game, which repaints the game's
+	 * container and is counted in its metrics. The game's board is published
+	 * after each step, before the container is repainted (see
+	 * {@link Klondike#publish()}).
+	 * @param game The game.
+	 */
+	Animation(Klondike game){
+		this(game.container, game.metrics, game);
+	}
+
+	/**
+	 * Instantiates the animation with all of its fields.
+	 */
+	private Animation(Component component, PerformanceMetrics metrics,
+			Klondike game){
+		this.component = component;
+		this.metrics = metrics;
+		this.game = game;
+		if(metrics != null){
+			metrics.animatorStarted();
+		}
+	}
+
+	/**
+	 * Moves the animation to where it is at the given time. Called by the
+	 * scheduler on each tick, on the event dispatch thread.
+	 * @param now		The time of the tick, from {@link System#nanoTime()}.
+	 * @param damage	Set to the region that needs to be repainted, which is
+	 * 					left empty if nothing moved.
+	 * @return <code>true</code> if the animation is still running, or
+	 * 			<code>false</code> if it is over.
+	 */
+	abstract boolean step(long now, Rectangle damage);
+
+	/**
+	 * Counts the animation as finished in the metrics. Called once, when the
+	 * animation is over.
+	 */
+	void finished(){
+		if(metrics != null){
+			metrics.animatorFinished();
+		}
+	}
+
+	/**
+	 * Returns the component to be repainted, or <code>null</code>.
+	 */
+	Component getComponent(){
+		return component;
+	}
+
+	/**
+	 * Returns the metrics that this animation is counted in, or
+	 * <code>null</code>.
+	 */
+	PerformanceMetrics getMetrics(){
+		return metrics;
+	}
+
+	/**
+	 * Returns the game whose board is published after each step, or
+	 * <code>null</code>.
+	 */
+	Klondike getGame(){
+		return game;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package solitaire;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+
+import javax.swing.Timer;
+
+/**
+ * The one clock that moves all {@link Animation}s, such as the
+ * {@link StackOfCardsAnimator}s. A single
+ * {@link Timer} ticks every {@value #FRAME} milliseconds on the event dispatch
+ * thread while any animator is running, and each tick moves every animator one
+ * step. The regions that the animators of one component moved over are
+ * coalesced, so each component is repainted once per tick, after the board of
+ * each game whose animators stepped has been published (see
+ * {@link Klondike#publish()}).
+ * <p>
+ * So however many cards are moving, no threads are started, and the cards are
+ * moved on the same thread that paints them. The timer stops when the last
+ * animator arrives and starts again when another is scheduled.
+ * <p>
+ * Every animator of a tick is moved to where it is at the time of the tick
+ * (see {@link StackOfCardsAnimator#step(long, Rectangle)}), so the animations
+ * keep their speed when ticks come late. Ticks that are due while the event
+ * dispatch thread is busy, such as with painting, are coalesced by the timer
+ * into one, so the frames in between are dropped rather than queued.
+ *
+ * @author Warren Godone-Maresca
+ */
+final class AnimationScheduler implements ActionListener {
+	/** The time between two ticks in milliseconds.							*/
+	static final int FRAME = 10;
+
+	/** The scheduler shared by all games.									*/
+	private static final AnimationScheduler SHARED = new AnimationScheduler();
+
+	/** Fires the ticks on the event dispatch thread.						*/
+	private final Timer timer;
+
+	/** The animators scheduled since the last tick, which may be added by any
+	 *  thread. Guarded by this.											*/
+	private final ArrayList<Animation> scheduled = new ArrayList<Animation>();
+
+	/** The animators that are moving. Only used by the ticks.				*/
+	private final ArrayList<Animation> running = new ArrayList<Animation>();
+
+	/** The components to repaint in a tick, the region of each, and the
+	 *  metrics to count each repaint in. Only used by the ticks.			*/
+	private final ArrayList<Component> components = new ArrayList<Component>();
+	private final ArrayList<Rectangle> damages = new ArrayList<Rectangle>();
+	private final ArrayList<PerformanceMetrics> metrics =
+			new ArrayList<PerformanceMetrics>();
+
+	/** The games of the animators stepped in a tick. Only used by the
+	 *  ticks.																*/
+	private final ArrayList<Klondike> games = new ArrayList<Klondike>();
+
+	/**
+	 * Instantiates the scheduler with its timer stopped.
+	 */
+	private AnimationScheduler(){
+		timer = new Timer(FRAME, this);
+		timer.setCoalesce(true); //Late ticks are dropped, not queued.
+	}
+
+	/**
+	 * Adds an animation to the shared scheduler. It is moved from the next tick
+	 * on. This may be called by any thread.
+	 * @param animator The animation to add.
+	 */
+	static void schedule(Animation animator){
+		SHARED.add(animator);
+	}
+
+	/**
+	 * Moves every animation counted in the given metrics, which are those of
+	 * one game, to its end at once, so that its cards are appended to their
+	 * destinations, and stops moving it. Nothing is repainted. Must be called
+	 * on the event dispatch thread.
+	 * @param metrics The metrics of the game whose animations are finished.
+	 */
+	static void finishAll(PerformanceMetrics metrics){
+		SHARED.finish(metrics);
+	}
+
+	/**
+	 * Finishes the animations counted in the given metrics.
+	 */
+	private void finish(PerformanceMetrics owner){
+		synchronized(this){ //Includes the animators not yet moved.
+			running.addAll(scheduled);
+			scheduled.clear();
+		}
+
+		//A time after every animation has ended, however late it starts.
+		long end = System.nanoTime() + 3600 * 1000000000L;
+		Rectangle damage = new Rectangle(); //Not used.
+		int kept = 0;
+		for(int i = 0; i < running.size(); i++){
+			Animation animator = running.get(i);
+			if(owner != null && animator.getMetrics() == owner){
+				while(animator.step(end, damage)){} //Until it is over.
+			} else {
+				running.set(kept++, animator);
+			}
+		}
+		running.subList(kept, running.size()).clear();
+	}
+
+	/**
+	 * Adds an animation and starts the timer if it is stopped.
+	 */
+	private synchronized void add(Animation animator){
+		scheduled.add(animator);
+		if(!timer.isRunning()){
+			timer.start();
+		}
+	}
+
+	/**
+	 * Moves every animator one step, then repaints the regions they moved over.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e){
+		synchronized(this){ //Takes the animators scheduled since the last tick.
+			running.addAll(scheduled);
+			scheduled.clear();
+		}
+
+		//Animators that arrive are removed by copying the others down.
+		long now = System.nanoTime(); //The same time for all of them.
+		int kept = 0;
+		for(int i = 0; i < running.size(); i++){
+			Animation animator = running.get(i);
+			Rectangle damage = new Rectangle(); //Set by the step.
+			boolean moving = animator.step(now, damage);
+			Klondike game = animator.getGame();
+			if(game != null && !games.contains(game)){
+				games.add(game);
+			}
+			if(animator.getComponent() != null && !damage.isEmpty()){
+				addDamage(animator, damage);
+			}
+			if(moving){
+				running.set(kept++, animator);
+			}
+		}
+		running.subList(kept, running.size()).clear();
+
+		for(Klondike game : games){ //The moves of the tick are complete.
+			game.publish();
+		}
+		games.clear();
+		for(int c = 0; c < components.size(); c++){
+			Rectangle damage = damages.get(c);
+			if(metrics.get(c) != null){
+				metrics.get(c).repaintRequested();
+			}
+			components.get(c).repaint(damage.x, damage.y, damage.width,
+					damage.height);
+		}
+		components.clear();
+		damages.clear();
+		metrics.clear();
+
+		synchronized(this){
+			if(running.isEmpty() && scheduled.isEmpty()){
+				timer.stop(); //Until another animator is scheduled.
+			}
+		}
+	}
+
+	/**
+	 * Adds the region an animation moved over to the region of its component.
+	 */
+	private void addDamage(Animation animator, Rectangle damage){
+		//There are only ever a few components, usually one.
+		int c = components.indexOf(animator.getComponent());
+		if(c < 0){
+			components.add(animator.getComponent());
+			damages.add(damage);
+			metrics.add(animator.getMetrics());
+		} else {
+			damages.get(c).add(damage);
+		}
+	}
+}
\ No newline at end of file
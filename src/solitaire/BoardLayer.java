@@ -0,0 +1,157 @@
+package solitaire;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import card.StackOfCards;
+import card.StackSnapshot;
+
+/**
+ * A cached picture of the parts of a {@link Klondike} game that do not move:
+ * the background and the piles (see
+ * {@link Klondike#paintPiles(Graphics, BoardSnapshot)}). Painting the game
+ * copies this picture and then draws only the cards being moved on top of it.
+ * <p>
+ * Before each copy, the layer checks whether any pile has changed since it was
+ * last drawn, by comparing the pile's snapshot in the board being painted with
+ * the snapshot that was drawn; a pile takes a new snapshot only after it
+ * changes (see {@link StackOfCards#snapshot()}), so they are the same object if
+ * and only if it has not changed since. Every pile is drawn from the same
+ * board. Only the regions of the piles that changed,
+ * where they were and where they are now, are drawn again. The whole picture is
+ * drawn again when the container is resized or {@link #invalidate()} is called.
+ * A game without a container (see {@link Klondike#Klondike()}) is drawn on a
+ * board of its default size and color, with nothing of Swing.
+ * <p>
+ * The layer is only used when the graphics are not scaled, as a picture drawn at
+ * one scale would be blurred at another. Otherwise the piles are painted
+ * directly.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class BoardLayer {
+	/** The game whose piles are drawn.										*/
+	private final Klondike game;
+
+	/** The picture, the size of the container, or <code>null</code> if it has
+	 *  to be drawn again.													*/
+	private BufferedImage image;
+
+	/** The snapshot of each pile that was last drawn, in the order of the
+	 *  game's index.														*/
+	private StackSnapshot[] drawn = new StackSnapshot[0];
+
+	/**
+	 * Instantiates the layer for a game. Nothing is drawn until it is painted.
+	 * @param game The game whose piles are drawn.
+	 */
+	public BoardLayer(Klondike game){
+		this.game = game;
+	}
+
+	/**
+	 * Marks the whole picture as out of date, so that it is drawn again the
+	 * next time it is painted.
+	 */
+	public void invalidate(){
+		image = null;
+	}
+
+	/**
+	 * Paints the background and the piles of the given board of the game, from
+	 * the cached picture if possible.
+	 * @param pane	The graphics to paint with.
+	 * @param board	The board being painted, as published by the game.
+	 */
+	public void paint(Graphics pane, BoardSnapshot board){
+		Component container = game.container;
+		int width = container == null ? Klondike.WIDTH : container.getWidth();
+		int height = container == null ? Klondike.HEIGHT : container.getHeight();
+		if(width <= 0 || height <= 0 || !(pane instanceof Graphics2D)
+				|| !isUnscaled(((Graphics2D)pane).getTransform())){
+			paintLayer(pane, board); //Then the piles are painted directly.
+			return;
+		}
+
+		if(image == null || image.getWidth() != width
+				|| image.getHeight() != height
+				|| drawn.length != board.numOfPiles()){
+			image = createImage(container, width, height);
+			drawn = new StackSnapshot[board.numOfPiles()];
+			for(int i = 0; i < drawn.length; i++){
+				drawn[i] = board.pile(i);
+			}
+			Graphics2D layerPane = image.createGraphics();
+			paintLayer(layerPane, board);
+			layerPane.dispose();
+		} else {
+			redrawChangedPiles(board);
+		}
+		pane.drawImage(image, 0, 0, null);
+	}
+
+	/**
+	 * Draws the regions of the piles that changed since they were last drawn
+	 * again, from the given board.
+	 */
+	private void redrawChangedPiles(BoardSnapshot board){
+		for(int i = 0; i < drawn.length; i++){
+			if(board.pile(i) == drawn[i]){
+				continue; //Then the pile has not changed.
+			}
+			//The region where the pile was and where it is now.
+			Rectangle damage = drawn[i].getBounds();
+			drawn[i] = board.pile(i);
+			damage.add(drawn[i].getBounds());
+
+			Graphics2D layerPane = image.createGraphics();
+			layerPane.clip(damage);
+			paintLayer(layerPane, board);
+			layerPane.dispose();
+		}
+	}
+
+	/**
+	 * Fills the clip of the graphics with the container's background, then
+	 * paints the piles of the given board.
+	 */
+	private void paintLayer(Graphics pane, BoardSnapshot board){
+		Component container = game.container;
+		Rectangle clip = pane.getClipBounds();
+		if(clip == null){
+			clip = container == null 
+					? new Rectangle(Klondike.WIDTH, Klondike.HEIGHT)
+					: new Rectangle(container.getSize());
+		}
+		pane.setColor(container == null 
+				? Klondike.BACKGROUND : container.getBackground());
+		pane.fillRect(clip.x, clip.y, clip.width, clip.height);
+		game.paintPiles(pane, board);
+	}
+
+	/**
+	 * Determines whether a transform only translates.
+	 */
+	private static boolean isUnscaled(AffineTransform transform){
+		return (transform.getType() & ~AffineTransform.TYPE_TRANSLATION) == 0;
+	}
+
+	/**
+	 * Returns an opaque image, compatible with the container's screen if there
+	 * is a container and it is showing.
+	 */
+	private static BufferedImage createImage(Component container, int width,
+			int height){
+		GraphicsConfiguration configuration = container == null ? null
+				: container.getGraphicsConfiguration();
+		if(configuration == null){
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}
+		return configuration.createCompatibleImage(width, height);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package solitaire;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import card.GameState;
+
+/**
+ * Draws the board of a game of solitaire from a {@link GameState} into an image,
+ * without a window. The game has no container (see {@link Klondike#Klondike()}),
+ * so nothing of Swing is made or used and a renderer may be used on any thread,
+ * including with <code>java.awt.headless=true</code>, such as on a server, to
+ * make thumbnails of saved games or the frames of a replay. Its piles are laid
+ * out empty and only ever hold the cards of the states rendered.
+ * <p>
+ * The kind of game is chosen from the structure of the first state (see
+ * {@link #gameFor(GameState)}), and all states rendered must be of that kind.
+ * The piles are painted as they are in a window, so consecutive states that
+ * only differ in a few piles only draw those piles again (see
+ * {@link BoardLayer}).
+ * <p>
+ * A renderer reuses one image for every state, so it may only be used by one
+ * thread at a time. Several renderers may be used by several threads.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class BoardRenderer {
+	/** The game whose board is drawn.										*/
+	private final Klondike game;
+
+	/** The image that the board is drawn into, the size of the board.		*/
+	private final BufferedImage image;
+
+	/**
+	 * Instantiates the renderer for the kind of game of the given state.
+	 * @param state A state of the kind of game to be rendered.
+	 * @throws IllegalArgumentException if the state is not of a known game.
+	 */
+	public BoardRenderer(GameState state){
+		game = gameFor(state);
+		image = new BufferedImage(Klondike.WIDTH, Klondike.HEIGHT,
+				BufferedImage.TYPE_INT_RGB);
+	}
+
+	/**
+	 * Returns a new game of the kind that the given state was taken from, which
+	 * is only drawn. The kind is told by the piles of the state:
+	 * <ul>
+	 * <li> {@link FreeCell} has holding cells,
+	 * <li> {@link Spider} has eight foundations,
+	 * <li> {@link Yukon} has neither a stock nor a waste, and
+	 * <li> {@link Klondike} has both.
+	 * </ul>
+	 * The piles of the game are empty; its cards are not set to the state's.
+	 * @throws IllegalArgumentException if the state is not of one of these games.
+	 */
+	public static Klondike gameFor(GameState state){
+		//The number of stocks and wastes.
+		int others = state.numOfPiles() - state.numOfTableaux()
+				- state.numOfFoundations() - state.numOfHoldingCells();
+		if(state.numOfHoldingCells() > 0){
+			return new FreeCell();
+		} else if(state.numOfFoundations() == 8 && others == 1){
+			return new Spider();
+		} else if(state.numOfFoundations() == 4 && others == 0){
+			return new Yukon();
+		} else if(state.numOfFoundations() == 4 && others == 2){
+			return new Klondike();
+		}
+		throw new IllegalArgumentException("The state is not of a known game.");
+	}
+
+	/**
+	 * Draws the board with the cards of the given state.
+	 * @param state A state of the kind of game of this renderer.
+	 * @return The image of the board. The same image is returned by every call,
+	 * 			so it must be used or copied before the next state is rendered.
+	 * @throws IllegalArgumentException if the state is of another kind of game.
+	 */
+	public BufferedImage render(GameState state){
+		game.setState(state);
+		Graphics2D pane = image.createGraphics();
+		game.paint(pane);
+		pane.dispose();
+		return image;
+	}
+
+	/**
+	 * Draws the board with the cards of the given state, scaled down to the
+	 * given width, such as for a list of saved games.
+	 * @param state A state of the kind of game of this renderer.
+	 * @param width The width of the thumbnail, at least 1. The height keeps the
+	 * 				proportions of the board.
+	 * @return A new image of the board.
+	 * @throws IllegalArgumentException if the state is of another kind of game.
+	 */
+	public BufferedImage renderThumbnail(GameState state, int width){
+		render(state);
+		int height = Math.max(1, image.getHeight() * width / image.getWidth());
+		BufferedImage thumbnail = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D pane = thumbnail.createGraphics();
+		pane.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		pane.drawImage(image, 0, 0, width, height, null);
+		pane.dispose();
+		return thumbnail;
+	}
+
+	/**
+	 * Returns the game whose board is drawn.
+	 */
+	public Klondike getGame(){
+		return game;
+	}
+}
\ No newline at end of file
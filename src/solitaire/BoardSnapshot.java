@@ -0,0 +1,79 @@
+package solitaire;
+
+import card.StackSnapshot;
+
+/**
+ * An immutable picture of every stack of a {@link Klondike} game at one time:
+ * a {@link StackSnapshot} of each pile, in the order of the game's index (see
+ * {@link Klondike#indexPiles(card.PileIndex)}), of the cards in use, and of
+ * each stack of cards being animated, in the order they are drawn.
+ * <p>
+ * A game publishes a new board once a change to its stacks is complete (see
+ * {@link Klondike#publish()}), through one volatile reference, and painting
+ * reads that reference once. So a frame shows every stack as of the same
+ * change, and a card moving from one stack to another is drawn in exactly one
+ * of them.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class BoardSnapshot {
+	/** The snapshots of the piles, in the order of the game's index.		*/
+	private final StackSnapshot[] piles;
+
+	/** The snapshot of the cards in use.									*/
+	private final StackSnapshot inUse;
+
+	/** The snapshots of the stacks being animated, in the order drawn.		*/
+	private final StackSnapshot[] animated;
+
+	/**
+	 * Instantiates the board with the given snapshots, which are not copied.
+	 */
+	BoardSnapshot(StackSnapshot[] piles, StackSnapshot inUse,
+			StackSnapshot[] animated){
+		this.piles = piles;
+		this.inUse = inUse;
+		this.animated = animated;
+	}
+
+	/**
+	 * Returns the number of piles.
+	 */
+	public int numOfPiles(){
+		return piles.length;
+	}
+
+	/**
+	 * Returns the snapshot of the pile at the given position in the game's
+	 * index.
+	 * @throws IndexOutOfBoundsException if <code>i</code> < 0 OR
+	 * 										<code>i</code> >= numOfPiles().
+	 */
+	public StackSnapshot pile(int i){
+		return piles[i];
+	}
+
+	/**
+	 * Returns the snapshot of the cards in use.
+	 */
+	public StackSnapshot inUse(){
+		return inUse;
+	}
+
+	/**
+	 * Returns the number of stacks being animated.
+	 */
+	public int numOfAnimated(){
+		return animated.length;
+	}
+
+	/**
+	 * Returns the snapshot of the stack being animated at the given position,
+	 * where stacks are drawn over those before them.
+	 * @throws IndexOutOfBoundsException if <code>i</code> < 0 OR
+	 * 										<code>i</code> >= numOfAnimated().
+	 */
+	public StackSnapshot animated(int i){
+		return animated[i];
+	}
+}
\ No newline at end of file
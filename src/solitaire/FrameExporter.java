@@ -0,0 +1,213 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import card.Foundation;
+import card.GameState;
+import card.StackOfCards;
+import card.Tableau;
+
+/**
+ * Renders a sequence of states of a game, such as the moves of a replay, to a
+ * numbered sequence of PNG files (see {@link #fileOf(int)}) without a window.
+ * <p>
+ * The frames are shared by a pool of worker threads, each with its own
+ * {@link BoardRenderer}, which uses nothing of Swing. Each worker takes the
+ * next {@link #CHUNK} frames at a time, so that it renders consecutive states,
+ * which usually differ in only a few piles, and so only draws those piles
+ * again.
+ * <p>
+ * The main method renders a game of Klondike Solitaire being played, to show
+ * how fast frames are exported. The game is played on the event dispatch
+ * thread, as it is in a panel. Runs headless.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class FrameExporter {
+	/** The number of consecutive frames a worker takes at a time.			*/
+	private static final int CHUNK = 16;
+
+	/** The directory that the frames are written to.						*/
+	private final File directory;
+
+	/** The number of worker threads.										*/
+	private final int threads;
+
+	/**
+	 * Instantiates the exporter.
+	 * @param directory The directory to write the frames to. It is created if
+	 * 					it does not exist.
+	 * @param threads	The number of worker threads, at least 1.
+	 */
+	public FrameExporter(File directory, int threads){
+		if(threads < 1){
+			throw new IllegalArgumentException("At least one thread is needed.");
+		}
+		this.directory = directory;
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the file that the frame with the given index is written to, such
+	 * as <code>frame00042.png</code>.
+	 */
+	public File fileOf(int frame){
+		return new File(directory, String.format("frame%05d.png", frame));
+	}
+
+	/**
+	 * Renders each state to the file of its index, and waits until all of the
+	 * frames are written.
+	 * @param frames	The states, all of the same kind of game.
+	 * @return The number of frames written per second.
+	 * @throws IOException if the directory could not be created or a frame
+	 * 			could not be written. The other frames may have been written.
+	 * @throws IllegalArgumentException if the states are not all of the same
+	 * 			known kind of game.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public double export(final List<GameState> frames)
+			throws IOException, InterruptedException {
+		if(!directory.isDirectory() && !directory.mkdirs()){
+			throw new IOException("Could not create " + directory);
+		}
+		if(frames.isEmpty()){
+			return 0;
+		}
+
+		final AtomicInteger next = new AtomicInteger(); //The next frame to take.
+		//The first failure of any worker, which stops all of them.
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		long start = System.nanoTime();
+		Thread[] workers = new Thread[Math.min(threads,
+				(frames.size() + CHUNK - 1) / CHUNK)];
+		for(int t = 0; t < workers.length; t++){
+			workers[t] = new Thread(new Runnable(){
+				public void run(){
+					try {
+						render(frames, next, failure);
+					} catch(IOException | RuntimeException e){
+						failure.compareAndSet(null, e);
+					}
+				}
+			}, "FrameExporter-" + t);
+			workers[t].start();
+		}
+		for(Thread worker : workers){
+			worker.join();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		Exception e = failure.get();
+		if(e instanceof IOException){
+			throw (IOException)e;
+		} else if(e != null){
+			throw (RuntimeException)e;
+		}
+		return frames.size() * 1e9 / elapsed;
+	}
+
+	/**
+	 * Renders and writes chunks of frames until there are none left or a worker
+	 * has failed.
+	 */
+	private void render(List<GameState> frames, AtomicInteger next,
+			AtomicReference<Exception> failure) throws IOException {
+		BoardRenderer renderer = new BoardRenderer(frames.get(0));
+		int first;
+		while(failure.get() == null
+				&& (first = next.getAndAdd(CHUNK)) < frames.size()){
+			int last = Math.min(first + CHUNK, frames.size());
+			for(int f = first; f < last; f++){
+				ImageIO.write(renderer.render(frames.get(f)), "png", fileOf(f));
+			}
+		}
+	}
+
+	/**
+	 * Plays a game of Klondike Solitaire and exports a frame after each move.
+	 * @param args 	The directory to write to, the number of frames (default
+	 * 				500), and the number of threads (default: one per core),
+	 * 				all but the directory optional.
+	 */
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		if(args.length == 0){
+			System.out.println("Arguments: directory [frames] [threads]");
+			return;
+		}
+		File directory = new File(args[0]);
+		final int numOfFrames = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+		int threads = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+
+		final List<GameState> frames = new ArrayList<GameState>();
+		SwingUtilities.invokeAndWait(new Runnable(){
+			public void run(){
+				frames.addAll(play(numOfFrames));
+			}
+		});
+		double framesPerSecond = new FrameExporter(directory, threads)
+				.export(frames);
+		System.out.printf("%d frames on %d threads: %.1f frames/s%n",
+				frames.size(), threads, framesPerSecond);
+	}
+
+	/**
+	 * Plays a game of Klondike Solitaire by turning the stock and moving every
+	 * card that can go to a foundation there, and returns the state after
+	 * each move. Must be called on the event dispatch thread.
+	 * @param numOfFrames The number of states to return.
+	 */
+	private static List<GameState> play(int numOfFrames){
+		Klondike game = new Klondike(new JPanel());
+		List<GameState> frames = new ArrayList<GameState>();
+		frames.add(game.getState());
+		while(frames.size() < numOfFrames){
+			if(!toFoundation(game, game.waste)){
+				boolean moved = false;
+				for(Tableau tableau : game.tableaux){
+					if(toFoundation(game, tableau)){
+						if(!tableau.isEmpty()){ //The card below is shown.
+							tableau.setTopHidden(false);
+						}
+						moved = true;
+						break;
+					}
+				}
+				if(!moved){
+					game.stockPressedAction(game.stock.getX(), game.stock.getY());
+				}
+			}
+			frames.add(game.getState());
+		}
+		return frames;
+	}
+
+	/**
+	 * Moves the top card of a stack to a foundation that accepts it, if any.
+	 * @return <code>true</code> if the card was moved, else <code>false</code>.
+	 */
+	private static boolean toFoundation(Klondike game, StackOfCards source){
+		if(source.isEmpty()){
+			return false;
+		}
+		for(Foundation foundation : game.foundations){
+			try {
+				foundation.push(source.peek());
+				source.pop(); //If an exception was not thrown.
+				return true;
+			} catch(IllegalArgumentException ex){}
+		}
+		return false;
+	}
+}
\ No newline at end of file
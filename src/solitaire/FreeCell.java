@@ -1,15 +1,15 @@
 package solitaire;
 
-import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 
 import javax.swing.JPanel;
 
-import card.Card;
+import card.GameState;
 import card.HoldingCell;
+import card.PileIndex;
 import card.StackOfCards;
 import card.Tableau;
-import dataStructures.Stack;
 
 /**
  * A common form of Solitaire. It is similar to {@link Klondike} except that
@@ -38,13 +38,18 @@ public class FreeCell extends Klondike {
 		super(panel);
 	}
 
+	/**
+	 * Instantiates a game that is only drawn. See {@link Klondike#Klondike()}.
+	 */
+	public FreeCell(){}
+
 	/**
 	 * Initializes all of the stacks used in the game.
 	 */
 	@Override
 	protected void init(){
 		initiallyHidden = false; //The cards are not initially hidden.
-		StackOfCards source = StackOfCards.randomDeck();
+		StackOfCards source = newDeck(1);
 
 		//Initializes the tableaux with an anonymous array.
 		initTableaux(source, new int[] {7, 7, 7, 7, 6, 6, 6, 6});
@@ -52,7 +57,7 @@ public class FreeCell extends Klondike {
 		initHoldingCells();
 
 		initialized = true;
-		container.repaint();
+		repaintAll();
 	}
 
 	/**
@@ -67,17 +72,37 @@ public class FreeCell extends Klondike {
 	}
 
 	/**
-	 * Determines if the given stack of cards is suitable to be removed from a
-	 * tableau (assuming that it originated from a tableau).
-	 * @return 	<code>true</code> if the given stack is visible, alternating in
+	 * Returns a compact copy of the cards in all of the stacks of this game.
+	 */
+	@Override
+	public GameState getState(){
+		return GameState.of(tableaux, foundations, holdingCells, null, null);
+	}
+
+	/**
+	 * Replaces the cards in all of the stacks of this game with the cards of the
+	 * given state, then repaints. Whatever is in flight is ended first.
+	 */
+	@Override
+	public void setState(GameState state){
+		settle();
+		state.restore(tableaux, foundations, holdingCells, null, null);
+		setEmptyVars();
+		repaintAll();
+	}
+
+	/**
+	 * Determines if the given number of cards at the top of a tableau may be
+	 * removed from it.
+	 * @return 	<code>true</code> if the cards are visible, alternating in
 	 * 			color, and in sequence, and its size does not exceed the number
 	 * 			of free cells + 1 times two raised to the power of the number of
 	 * 			empty tableaux, else <code>false</code>.
 	 */
 	@Override
-	protected boolean removableFromTableaux(Stack<Card> cards){
-		return super.removableFromTableaux(cards) &&
-				cards.size() <= (emptyCells + 1)*(Math.pow(2, emptyTableaux));			
+	protected boolean removableFromTableau(Tableau tableau, int numOfCards){
+		return super.removableFromTableau(tableau, numOfCards) &&
+				numOfCards <= (emptyCells + 1)*(Math.pow(2, emptyTableaux));
 	}
 
 	/**
@@ -88,13 +113,12 @@ public class FreeCell extends Klondike {
 	 * @return <code>true</code> if a card was put in use, else <code>false</code>
 	 */
 	protected boolean holdingCellsPressedAction(int x, int y){
-		for(HoldingCell cell : holdingCells){
-			//If the cell contains the click, then it is nonempty, so
-			if(cell.contains(x, y)){
-				inUse.push(cell.pop()); //add the card of the cell to inUse,
-				lastStack = cell;		//point lastStack to the cell,
-				return true; //The action was performed.
-			}
+		HoldingCell cell = holdingCellAt(x, y);
+		//If the cell contains the click, then it is nonempty, so
+		if(cell != null && cell.contains(x, y)){
+			inUse.push(cell.pop()); //add the card of the cell to inUse,
+			lastStack = cell;		//point lastStack to the cell,
+			return true; //The action was performed.
 		}
 		return false; //If we arrive to this point, nothing was done.
 	}
@@ -109,17 +133,37 @@ public class FreeCell extends Klondike {
 	 * 			<code>false</code>.
 	 */
 	protected boolean holdingCellsReleasedAction(int x, int y){
-		for(HoldingCell cell : holdingCells){
-			if(cell.shapeOfNextCard().contains(x, y) //If the cell was clicked,
-					&& cell.isEmpty()				 //and the cell is empty,
-					&& inUse.size() == 1){			 //and 1 card is in uses,
-				cell.push(inUse.pop());		//then add that card to the cell.
-				return true; //The action was performed.
-			}
+		HoldingCell cell = holdingCellAt(x, y);
+		if(cell != null				//If the cell was clicked,
+				&& cell.isEmpty()	//and the cell is empty,
+				&& inUse.size() == 1){//and 1 card is in uses,
+			cell.push(inUse.pop());		//then add that card to the cell.
+			return true; //The action was performed.
 		}
 		return false;//The action was not performed if we have reached this line.
 	}
 
+	/**
+	 * Returns the holding cell that contains the given point, or whose next card
+	 * would contain it.
+	 * @return That cell, or <code>null</code> if there is none.
+	 */
+	protected HoldingCell holdingCellAt(int x, int y){
+		StackOfCards pile = pileAt(x, y);
+		return pile instanceof HoldingCell ? (HoldingCell)pile : null;
+	}
+
+	/**
+	 * Adds the holding cells to the index along with the other stacks.
+	 */
+	@Override
+	protected void indexPiles(PileIndex index){
+		super.indexPiles(index);
+		for(HoldingCell cell : holdingCells){
+			index.add(cell);
+		}
+	}
+
 	/**
 	 * Performs all of the pressed action methods until an action is performed.
 	 */
@@ -146,6 +190,8 @@ public class FreeCell extends Klondike {
 		if(inUse.isEmpty()){ //If no cards are in use,
 			return;			 //then do nothing.
 		}
+		Rectangle damage = inUse.getBounds(); //Where the cards in use were drawn.
+
 		//If some cards are in use, the each released action method is called
 		//until one action is done. If no action is performed, then the cards are
 		//returned to the last stack.
@@ -160,7 +206,7 @@ public class FreeCell extends Klondike {
 			}
 		}
 		setEmptyVars(); //Update the number of empty stacks
-		container.repaint(); //and repaint.
+		repaint(damage, lastStack, pileAt(x, y)); //and repaint what changed.
 	}
 	
 	/**
@@ -186,7 +232,7 @@ public class FreeCell extends Klondike {
 	protected boolean hasWon(){
 		setEmptyVars();
 		for(Tableau tableau : tableaux){
-			if(!Tableau.inSequence(tableau) || !Tableau.alternatesInColor(tableau)){ 
+			if(tableau.alternatingRun() != tableau.size()){ 
 				return false; //Then the user has not won.
 			}
 		}
@@ -194,17 +240,4 @@ public class FreeCell extends Klondike {
 		//user has effectively won.
 		return emptyTableaux >= (tableaux.length - 4) && emptyCells == 4;
 	}
-	
-	/**
-	 * Draws all of the stacks being used.
-	 */
-	@Override
-	public void paint(Graphics pane){
-		if(initialized){
-			for(StackOfCards cell : holdingCells){
-				cell.draw(pane);
-			}
-			super.paint(pane);
-		}
-	}
 }
\ No newline at end of file
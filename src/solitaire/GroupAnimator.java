@@ -0,0 +1,104 @@
+package solitaire;
+
+import java.awt.Rectangle;
+import java.util.concurrent.CompletableFuture;
+
+import card.StackOfCards;
+
+/**
+ * Moves a group of stacks to their destinations as one animation, such as the
+ * cards of a deal or of a run swept to a foundation. Each stack is moved as by
+ * a {@link StackOfCardsAnimator}, and each starts a fixed time after the one
+ * before it, so the cards leave one after another and arrive in order.
+ * <p>
+ * The whole group is one job of the {@link AnimationScheduler}, counted as one
+ * animator in the game's metrics, and it repaints one region per tick. Its
+ * {@link #completion()} is completed once, when the last stack has arrived.
+ * See {@link Klondike#animateTopCardsOf(StackOfCards[], StackOfCards[], int)}.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class GroupAnimator extends Animation {
+	/** Moves each stack, or <code>null</code> once it has arrived.			*/
+	private final StackOfCardsAnimator[] moves;
+
+	/** The number of stacks that have not arrived.							*/
+	private int moving;
+
+	/** The region that one stack moved over in a step, reused.				*/
+	private final Rectangle moved = new Rectangle();
+
+	/** Completed when every stack has been appended to its destination.	*/
+	private final CompletableFuture<Void> completion =
+			new CompletableFuture<Void>();
+
+	/**
+	 * Instantiates and schedules the animation. The stack at each index is
+	 * moved to the destination at that index, starting <code>stagger</code>
+	 * milliseconds after the stack before it.
+	 * @param stacks		The stacks to be moved and appended.
+	 * @param destinations	The stacks to receive them.
+	 * @param stagger		The time between the starts of two stacks in
+	 * 						milliseconds.
+	 * @param game			The game that the stacks are in, whose container is
+	 * 						repainted and whose board is published.
+	 * @throws IllegalArgumentException if there are not as many destinations
+	 * 			as stacks.
+	 */
+	public GroupAnimator(StackOfCards[] stacks, StackOfCards[] destinations,
+			int stagger, Klondike game){
+		super(game);
+		if(stacks.length != destinations.length){
+			throw new IllegalArgumentException(
+					"Each stack needs one destination.");
+		}
+		long start = System.nanoTime();
+		moves = new StackOfCardsAnimator[stacks.length];
+		for(int i = 0; i < moves.length; i++){
+			moves[i] = new StackOfCardsAnimator(stacks[i], destinations[i],
+					start + i * stagger * 1000000L);
+		}
+		moving = moves.length;
+		AnimationScheduler.schedule(this); //Starts the animation.
+	}
+
+	/**
+	 * Moves every stack that has started to where it is at the given time,
+	 * appending the stacks that have arrived.
+	 */
+	@Override
+	boolean step(long now, Rectangle damage){
+		damage.setBounds(0, 0, 0, 0);
+		for(int i = 0; i < moves.length; i++){
+			if(moves[i] == null){
+				continue; //Then the stack has arrived.
+			}
+			if(!moves[i].step(now, moved)){
+				moves[i] = null;
+				moving--;
+			}
+			if(moved.isEmpty()){
+				continue; //Then the stack has not started.
+			} else if(damage.isEmpty()){
+				damage.setBounds(moved);
+			} else {
+				damage.add(moved);
+			}
+		}
+
+		if(moving > 0){
+			return true;
+		}
+		finished();
+		completion.complete(null); //Runs what waits for it on this thread.
+		return false;
+	}
+
+	/**
+	 * Returns a future that is completed on the event dispatch thread once
+	 * every stack has been appended to its destination.
+	 */
+	public CompletableFuture<Void> completion(){
+		return completion;
+	}
+}
\ No newline at end of file
@@ -3,18 +3,22 @@ package solitaire;
 import java.awt.Color;
 import java.awt.Container;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.JOptionPane;
 
-import card.Card;
 import card.Foundation;
+import card.GameState;
+import card.PileIndex;
 import card.StackOfCards;
+import card.StackSnapshot;
 import card.Tableau;
+import dataStructures.MpscQueue;
 import dataStructures.Queue;
-import dataStructures.Stack;
 
 /**
  * A game of Klondike Solitaire. Klondike is one of the most
@@ -35,6 +39,12 @@ import dataStructures.Stack;
  * @author Warren Godone-Maresca
  */
 public class Klondike implements MouseListener, MouseMotionListener {
+	/** The width and height of the board in pixels.						*/
+	static final int WIDTH = 790, HEIGHT = 720;
+
+	/** The color of the board.												*/
+	static final Color BACKGROUND = new Color(0, 180, 0); //A green color.
+
 	/** Holds each of the tableau stacks.									*/
 	protected Tableau[] tableaux;
 
@@ -78,40 +88,141 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 *  to the cards when the mouse clicks a tableau.						*/
 	protected int deltaX, deltaY;
 
-	/** The {@link Container} in which the game will be played.				*/
+	/** The {@link Container} in which the game will be played, or
+	 *  <code>null</code> if the game is only drawn (see {@link #Klondike()}).	*/
 	protected Container container;
 
 	/** Holds cards being moved between stacks and are not in one of the instance
-	 * StackOfCards so that they can be animated.							  */
+	 * StackOfCards so that they can be animated. Only {@link #publish()} uses
+	 * this queue.															  */
 	protected Queue<StackOfCards> animationQueue;
 
-	/** Do nothing constructor.												*/
-	public Klondike(){}
+	/** Holds stacks that any thread has started animating until the board is
+	 *  next published, which moves them to the {@link #animationQueue}.	  */
+	protected MpscQueue<StackOfCards> pendingAnimations;
+
+	/** Empty stacks that held cards being animated, which are returned once
+	 *  they are removed from the {@link #animationQueue}, to be used again by
+	 *  the thread starting animations (see {@link #temporaryStack(int, int)}).*/
+	protected MpscQueue<StackOfCards> spareStacks;
+
+	/** The snapshot of every stack as of the last completed change, which is
+	 *  what painting reads (see {@link #publish()}), or <code>null</code> if
+	 *  there is nothing to paint.											  */
+	private volatile BoardSnapshot board;
+
+	/** Finds the stack under the mouse. It is built the first time it is
+	 *  used (see {@link #indexPiles(PileIndex)}).							  */
+	protected PileIndex piles;
+
+	/** A cached picture of the background and the piles that are not being
+	 *  moved, which is painted under the moving cards.					  */
+	protected BoardLayer layer;
+
+	/** Counts the paints, repaints, and animations of this game.			*/
+	protected PerformanceMetrics metrics;
+
+	/** Shows the {@link #metrics} over the board when it is turned on, or
+	 *  <code>null</code> if the game has no container.						*/
+	protected PerformanceOverlay overlay;
+
+	/** Completed when the winning animation has finished, or <code>null</code>
+	 *  if it has not been played.											*/
+	private CompletableFuture<Void> winning;
+
+	/** Whether the game responds to the mouse (see {@link #start()}).		*/
+	private boolean started;
 
 	/**
-	 * Instantiates the game with a {@link Container}.
+	 * Instantiates a game that is only drawn, such as by a
+	 * {@link BoardRenderer}. It has no container and makes nothing of Swing,
+	 * so it may be made and painted on any thread, and its piles are laid out
+	 * empty rather than dealt. Its cards are set with
+	 * {@link #setState(GameState)}. It cannot be started.
+	 */
+	public Klondike(){
+		setUp();
+	}
+
+	/**
+	 * Instantiates the game with a {@link Container}. The game is dealt, but it
+	 * does not respond to the mouse until it is started (see {@link #start()}).
 	 * @param container The Container (such as window or applet) in which the 
 	 * 					game will be played.
 	 */
 	public Klondike(Container container){
 		this.container = container;
-		container.addMouseListener(this); 		//To respond to clicks
-		container.addMouseMotionListener(this); //and dragging.
-		container.setBackground(new Color(0, 180, 0)); //A green color.
-		container.setSize(790, 720);
+		container.setBackground(BACKGROUND);
+		container.setSize(WIDTH, HEIGHT);
 		container.setPreferredSize(container.getSize());
+		overlay = new PerformanceOverlay(this);
+		setUp();
+	}
 
-		yCoord = container.getHeight()/12;
+	/**
+	 * Sets the dimensions of the stacks, makes the stacks that every game has,
+	 * and initializes the rest (see {@link #init()}).
+	 */
+	private void setUp(){
+		yCoord = HEIGHT/12;
 		cardWidth = 60;
 		offset = cardWidth/2;
 
 		//Instantiates the in use stack and animation queue.
 		inUse = new StackOfCards(0, 0, cardWidth, 0, offset * 3/2);
 		animationQueue = new Queue<StackOfCards>();
+		pendingAnimations = new MpscQueue<StackOfCards>();
+		spareStacks = new MpscQueue<StackOfCards>();
+		layer = new BoardLayer(this);
+		metrics = new PerformanceMetrics();
+		metrics.watch(inUse);
 
 		init(); //Initializes all of the stacks.
 	}
 
+	/**
+	 * Starts the game: it responds to the mouse in its container from now on.
+	 * A game that is only painted, such as by a {@link BoardRenderer}, need not
+	 * be started. Starting a started game does nothing.
+	 * @throws IllegalStateException if the game has no container.
+	 */
+	public void start(){
+		if(container == null){
+			throw new IllegalStateException("The game is only drawn.");
+		} else if(!started){
+			started = true;
+			container.addMouseListener(this); 		//To respond to clicks
+			container.addMouseMotionListener(this); //and dragging.
+			repaintAll();
+		}
+	}
+
+	/**
+	 * Ends the game, so that another can be played in the same container and
+	 * nothing keeps this one reachable or working. It stops responding to the
+	 * mouse, ends whatever is in flight (see {@link #settle()}), stops the
+	 * timer of the {@link #overlay}, and drops the cached picture and the
+	 * queues of stacks being animated. Afterwards it paints nothing. Must be
+	 * called on the event dispatch thread. Disposing of a disposed game does
+	 * nothing.
+	 */
+	public void dispose(){
+		if(container != null){
+			container.removeMouseListener(this);
+			container.removeMouseMotionListener(this);
+			overlay.setVisible(false); //Stops its timer.
+		}
+		started = false;
+		settle();
+
+		initialized = false; //So nothing is painted.
+		board = null;
+		layer.invalidate();
+		animationQueue = new Queue<StackOfCards>();
+		pendingAnimations = new MpscQueue<StackOfCards>();
+		spareStacks = new MpscQueue<StackOfCards>();
+	}
+
 	/**
 	 * Initializes all of the stacks of cards either directly or from a helper
 	 * method (except for <code>inUse</code>). The <code>tableaux</code> aren't 
@@ -120,7 +231,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 */
 	protected void init(){
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = newDeck(1);
 
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
@@ -128,7 +239,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		initStockAndWaste(deck); //Initializes the stock and waste
 		initFoundations(4);		//and foundations
 		initialized = true; //Everything is initialized,
-		container.repaint();//So we repaint.
+		repaintAll();		//So we repaint.
 	}
 
 	/**
@@ -151,14 +262,32 @@ public class Klondike implements MouseListener, MouseMotionListener {
 			tableaux[i] = new Tableau(
 					(cardWidth+10)*(i+1), yCoord + cardWidth*2, cardWidth, offset);
 
-			for(int j = 0; j < initialTableauxSizes[i]; j++){ //Moves cards from
-				tableaux[i].push(source.pop());          //source to tableau
-				tableaux[i].peek().setHidden(initiallyHidden);
+			//Moves cards from the source to the tableau, while it has cards.
+			for(int j = 0; j < initialTableauxSizes[i] && !source.isEmpty(); 
+					j++){
+				tableaux[i].push(source.pop());
+				tableaux[i].setTopHidden(initiallyHidden);
 			}
 		}
 		for(StackOfCards stack : tableaux){ //For each tableau,
-			stack.peek().setHidden(false); //we show the top card.
+			stack.setTopHidden(false); //we show the top card.
+		}
+	}
+
+	/**
+	 * Returns the cards that the game is dealt from: the given number of decks
+	 * shuffled together. A game that is only drawn (see {@link #Klondike()}) is
+	 * dealt no cards, so its piles are laid out empty.
+	 */
+	protected StackOfCards newDeck(int numOfDecks){
+		StackOfCards deck = new StackOfCards();
+		if(container != null){
+			for(int i = 0; i < numOfDecks; i++){
+				deck.fillBySuit();
+			}
+			deck.shuffle();
 		}
+		return deck;
 	}
 
 	/**
@@ -169,7 +298,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	protected void initStockAndWaste(StackOfCards deck){
 		stock = new StackOfCards(cardWidth + 10, yCoord, cardWidth, 0, 0);
 		stock.appendStack(deck); //The stock contains all of its cards.
-		stock.peek().setHidden(true); //So that the stock is hidden.
+		stock.setTopHidden(true); //So that the stock is hidden.
 
 		waste = new StackOfCards(2*(stock.getX()), yCoord, cardWidth, 0, 0);
 	}
@@ -185,6 +314,62 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		}
 	}
 
+	/**
+	 * Returns a compact copy of the cards in all of the stacks of this game.
+	 */
+	public GameState getState(){
+		return GameState.of(tableaux, foundations, null, stock, waste);
+	}
+
+	/**
+	 * Replaces the cards in all of the stacks of this game with the cards of the
+	 * given state, then repaints. Whatever is in flight is ended first (see
+	 * {@link #settle()}), so no card of the old state lands in the new one.
+	 * @param state A state returned by {@link #getState()} of this kind of game.
+	 * @throws IllegalArgumentException if the state is of another kind of game,
+	 * 			or if a pile breaks the rules of its stack. No stack is changed
+	 * 			then.
+	 */
+	public void setState(GameState state){
+		settle();
+		state.restore(tableaux, foundations, null, stock, waste);
+		repaintAll();
+	}
+
+	/**
+	 * Ends everything that would still change the stacks: the winning
+	 * animation launches no more cards, every card being animated is appended
+	 * to its destination at once, and the cards in use are dropped. A game
+	 * without a container is never animated, so nothing of Swing is touched
+	 * for it.
+	 */
+	protected void settle(){
+		if(winning != null){
+			winning.cancel(false); //No more cards are launched.
+		}
+		if(container != null){
+			AnimationScheduler.finishAll(metrics);
+		}
+		inUse.clear();
+		lastStack = null;
+	}
+
+	/**
+	 * Returns the counts of the paints, repaints, and animations of this game.
+	 */
+	public PerformanceMetrics getMetrics(){
+		return metrics;
+	}
+
+	/**
+	 * Returns the overlay that shows the {@link #getMetrics() metrics} over the
+	 * board, which is hidden until it is turned on, or <code>null</code> if
+	 * the game has no container.
+	 */
+	public PerformanceOverlay getOverlay(){
+		return overlay;
+	}
+
 	/**
 	 * Performs the action associated with stock when clicked. If the stock is not
 	 * empty, a card will be flipped from the stock to the waste, otherwise, the
@@ -202,25 +387,25 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		if(stock.contains(x, y)){
 			//If the stock was clicked:
 			waste.push(stock.pop());	 //Move the top card from stock to waste.
-			waste.peek().setHidden(false);//And show it.
+			waste.setTopHidden(false);//And show it.
 
 			if(!stock.isEmpty())
-				stock.peek().setHidden(true);//Hides the new top card of the stack.
+				stock.setTopHidden(true);//Hides the new top card of the stack.
 			moves++; //This counts as a move.
-			container.repaint();
+			repaint(stock, waste);
 			return true; //The action was performed.
 
-		} else if(stock.shapeOfNextCard().contains(x, y)){
+		} else if(stock.nextCardContains(x, y)){
 			//else if the mouse clicked the empty stock's area:
 			//Turn over all cards from the waste to the stock,
 			stock.appendStack(waste.reverseCopy());
 			waste.clear(); //and clear the waste.
 
 			if(!stock.isEmpty()){
-				stock.peek().setHidden(true); //So that stock is turned form
+				stock.setTopHidden(true); //So that stock is turned form
 				moves++;					  //the user.
 			}
-			container.repaint();
+			repaint(stock, waste);
 			return true; //The action was performed.
 		}
 		return false; //The action was not performed.
@@ -258,41 +443,43 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * 			else <code>false</code>
 	 */
 	protected boolean tableauxPressedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each tableau,
-			if(tableau.contains(x, y)){  //and if the mouse clicked a tableau,
+		Tableau tableau = tableauAt(x, y); //The tableau that was clicked, if any.
+		if(tableau == null || !tableau.contains(x, y)){
+			return false; //No tableau was clicked.
+		}
 
-				//The cards to be put inUse.
-				Stack<Card> cards = tableau.popCardsBelow(y);
+		//The number of cards below the click.
+		int numOfCards = tableau.numOfCardsBelow(y);
 
-				if(!removableFromTableaux(cards)){
-					//the cards are not removable so we put them back.
-					tableau.appendStack(cards);
-					return false; //The action was not performed.
-				}
+		if(!removableFromTableau(tableau, numOfCards)){
+			return false; //The action was not performed.
+		}
 
-				//The y coordinate of the bottom card that was popped.
-				int cardsY = cards.reverseCopy().peek().getY();
+		//The y coordinate of the bottom card to be popped.
+		int cardsY = tableau.cardY(tableau.size() - numOfCards);
 
-				deltaX = x - tableau.getX(); //How off center the click was
-				deltaY = y - cardsY;		//relative to the card.
+		deltaX = x - tableau.getX(); //How off center the click was
+		deltaY = y - cardsY;		//relative to the card.
 
-				//Then put all cards below the click in use, if they are suitable.
-				inUse.appendStack(cards);
+		//Then the cards below the click are moved straight into use, each
+		//keeping its orientation.
+		tableau.popRange(numOfCards, inUse);
 
-				lastStack = tableau; //And the the tableau becomes the last stack.
-			}
-		}
-		return false; //No tableau was clicked.
+		lastStack = tableau; //And the the tableau becomes the last stack.
+		return true;
 	}
 	
 	/**
-	 * 
+	 * Determines if the given number of cards at the top of a tableau may be
+	 * removed from it. This is answered from the runs that the tableau keeps, so
+	 * no cards are popped to be checked.
+	 * @param tableau		The tableau.
+	 * @param numOfCards	The number of cards at the top of the tableau.
+	 * @return 	<code>true</code> if the cards are visible, in sequence, and
+	 * 			alternate in color, else <code>false</code>.
 	 */
-	protected boolean removableFromTableaux(Stack<Card> cards){
-		return cards != null
-				&& Tableau.isVisible(cards)
-				&& Tableau.inSequence(cards)
-				&& Tableau.alternatesInColor(cards);
+	protected boolean removableFromTableau(Tableau tableau, int numOfCards){
+		return numOfCards > 0 && numOfCards <= tableau.alternatingRun();
 	}
 
 
@@ -302,7 +489,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	@Override
 	public void mousePressed(MouseEvent e){
 		if(hasWon()){				//If the user has won,
-			container.repaint();	//repaint and
+			repaintAll();			//repaint and
 			onWin();				//perform the on win action
 			return;
 		}
@@ -328,19 +515,18 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * 			else <code>false</code>
 	 */
 	protected boolean tableauxReleasedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-
-				try {
-					tableau.appendSuitableCards(inUse);
-					//This code is not executed if an exception was thrown.
-					inUse.clear();
-					flipLastStack();
-					return true;
-				} catch(IllegalArgumentException ex){}
-			}
+		Tableau tableau = tableauAt(x, y);
+		if(tableau != null){
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
+
+			try {
+				tableau.appendSuitableCards(inUse);
+				//This code is not executed if an exception was thrown.
+				inUse.clear();
+				flipLastStack();
+				return true;
+			} catch(IllegalArgumentException ex){}
 		}
 		return false;//If we have reached this point, then no action was performed
 	}
@@ -365,25 +551,88 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		if(inUse.isEmpty() || inUse.size() != 1){ //Only 1 card can be added to
 			return false;						  //a foundation at a time.
 		}
-		for(Foundation foundation : foundations){
-			//If the foundation was clicked.
-			if(foundation.contains(x, y) || (foundation.isEmpty()
-					&& foundation.shapeOfNextCard().contains(x, y))){
-				try {
-					//Peek is used in case the card is not appended.
-					foundation.push(inUse.peek());
-					//if an exception was not thrown:
-					inUse.pop(); //we pop.
-					flipLastStack();
-					return true; //The action was performed
-				} catch(IllegalArgumentException ex){ //If an exception was thrown,
-					return false; //we return false as nothing was done.
-				}
+		Foundation foundation = foundationAt(x, y);
+		if(foundation != null){ //If the foundation was clicked.
+			try {
+				//Peek is used in case the card is not appended.
+				foundation.push(inUse.peek());
+				//if an exception was not thrown:
+				inUse.pop(); //we pop.
+				flipLastStack();
+				return true; //The action was performed
+			} catch(IllegalArgumentException ex){ //If an exception was thrown,
+				return false; //we return false as nothing was done.
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the stack that contains the given point, or whose next card would
+	 * contain it, from the {@link #piles} index.
+	 * @param x		The x coordinate of a mouse click.
+	 * @param y		The y coordinate.
+	 * @return That stack, or <code>null</code> if there is none.
+	 */
+	protected StackOfCards pileAt(int x, int y){
+		return piles().pileAt(x, y);
+	}
+
+	/**
+	 * Returns the index of the stacks of this game, building it, and counting
+	 * the changes to its stacks in the {@link #metrics}, the first time.
+	 */
+	protected PileIndex piles(){
+		if(piles == null){ //Then the stacks have not been indexed yet.
+			piles = new PileIndex();
+			indexPiles(piles);
+			for(int i = 0; i < piles.size(); i++){ //Their changes are counted.
+				metrics.watch(piles.get(i));
+			}
+		}
+		return piles;
+	}
+
+	/**
+	 * Adds all of the stacks that can be clicked to the given index. Games with
+	 * other stacks should override this method and call it.
+	 * @param index The index of {@link #pileAt(int, int)}.
+	 */
+	protected void indexPiles(PileIndex index){
+		for(Tableau tableau : tableaux){
+			index.add(tableau);
+		}
+		for(Foundation foundation : foundations){
+			index.add(foundation);
+		}
+		if(stock != null){
+			index.add(stock);
+		}
+		if(waste != null){
+			index.add(waste);
+		}
+	}
+
+	/**
+	 * Returns the tableau that contains the given point, or whose next card would
+	 * contain it.
+	 * @return That tableau, or <code>null</code> if there is none.
+	 */
+	protected Tableau tableauAt(int x, int y){
+		StackOfCards pile = pileAt(x, y);
+		return pile instanceof Tableau ? (Tableau)pile : null;
+	}
+
+	/**
+	 * Returns the foundation that contains the given point, or whose next card
+	 * would contain it.
+	 * @return That foundation, or <code>null</code> if there is none.
+	 */
+	protected Foundation foundationAt(int x, int y){
+		StackOfCards pile = pileAt(x, y);
+		return pile instanceof Foundation ? (Foundation)pile : null;
+	}
+
 	/**
 	 * Calls all of the release action methods. But if no action is performed,
 	 * then the cards in {@link #inUse} are returned to {@link #lastStack}
@@ -394,19 +643,22 @@ public class Klondike implements MouseListener, MouseMotionListener {
 			return;					 //is released.
 		}
 		int x = e.getX(), y = e.getY(); //The mouse's location.
+		Rectangle damage = inUse.getBounds(); //Where the cards in use were drawn.
 		if(!tableauxReleasedAction(x, y) && !foundationsReleasedAction(x, y)){
 			//Then no action was performed, so we return the cards to the
 			returnToLastStack();	//last stack.
 		} else {
 			moves++; //A move was made
 		}
+		//The cards may have been added to the stack under the mouse.
+		repaint(damage, lastStack, pileAt(x, y));
 	}
 
 	/**
 	 * Return the cards that are in use to the last stack that was clicked.
 	 */
 	protected void returnToLastStack(){
-		new StackOfCardsAnimator(inUse, lastStack, container);
+		new StackOfCardsAnimator(inUse, lastStack, this);
 	}
 
 	/**
@@ -414,9 +666,9 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 */
 	protected void flipLastStack(){
 		if(!lastStack.isEmpty()){ //We unhide the top card
-			lastStack.peek().setHidden(false); //of the last stack.
+			lastStack.setTopHidden(false); //of the last stack.
 		}
-		container.repaint();
+		repaint(lastStack);
 	}
 	
 	/**
@@ -425,49 +677,164 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	@Override
 	public void mouseDragged(MouseEvent e){
 		if(inUse != null){//Just move the cards inUse When the mouse is dragged
+			Rectangle damage = inUse.getBounds(); //Where they were drawn,
 			inUse.setLocation(e.getX() - deltaX, e.getY() - deltaY);
-			container.repaint();                   //and repaint.
+			repaint(damage, inUse);				  //and where they are now.
+		}
+	}
+
+	/**
+	 * Publishes the board and repaints the whole container, if there is one.
+	 */
+	protected void repaintAll(){
+		publish();
+		if(container != null){
+			container.repaint();
+		}
+	}
+
+	/**
+	 * Publishes the board and repaints the parts of the container covered by
+	 * the given stacks. The bounds of the stacks are coalesced into one
+	 * rectangle, so the container is asked to repaint once.
+	 * @param stacks The stacks to repaint. Any may be <code>null</code>.
+	 */
+	protected void repaint(StackOfCards... stacks){
+		repaint(null, stacks);
+	}
+
+	/**
+	 * Repaints a region of the container along with the parts covered by the
+	 * given stacks, such as where a stack was before it moved. The region and
+	 * the bounds of the stacks are coalesced into one rectangle.
+	 * @param damage	The region, or <code>null</code>. It may be modified.
+	 * @param stacks	The stacks to repaint. Any may be <code>null</code>.
+	 */
+	protected void repaint(Rectangle damage, StackOfCards... stacks){
+		publish(); //The change is complete.
+		for(StackOfCards stack : stacks){
+			if(stack == null){
+				continue;
+			} else if(damage == null){
+				damage = stack.getBounds();
+			} else {
+				damage.add(stack.getBounds());
+			}
 		}
+		if(damage != null && container != null){
+			metrics.repaintRequested();
+			container.repaint(damage.x, damage.y, damage.width, damage.height);
+		}
+	}
+
+	/**
+	 * Determines whether any part of a snapshot of a stack is within the given
+	 * clip, and so needs to be painted.
+	 * @param stack	The snapshot of the stack.
+	 * @param clip	The clip of the graphics, or <code>null</code> if the
+	 * 				graphics is not clipped.
+	 */
+	protected static boolean inClip(StackSnapshot stack, Rectangle clip){
+		return clip == null || clip.intersects(stack.getBounds());
 	}
 
 	/**
-	 * Removes empty elements from the animation queue.
+	 * Removes empty elements from the animation queue and returns them to the
+	 * {@link #spareStacks}.
 	 */
 	protected void updateAnimationQueue(){
 		while(!animationQueue.isEmpty()){ //While it has elements.
 			if(animationQueue.peek().isEmpty()){//If the front element is empty,
-				animationQueue.dequeue();		//remove it.
+				spareStacks.enqueue(animationQueue.dequeue());//remove it.
 			} else {							//else it is not empty,
 				return;							//so we are done.
 			}
 		}
 	}
 
+	/**
+	 * Publishes a snapshot of every stack of this game as one
+	 * {@link BoardSnapshot}, which is what is painted from then on. It is
+	 * called once a change is complete, such as when a repaint is requested or
+	 * after the animations have stepped, on the thread that changes the
+	 * stacks. Only the stacks that changed since the last board are copied (see
+	 * {@link StackOfCards#snapshot()}).
+	 * <p>
+	 * The stacks that have started being animated are moved to the
+	 * {@link #animationQueue}, and the empty ones are removed from it.
+	 */
+	protected void publish(){
+		PileIndex index = piles();
+		StackSnapshot[] pileSnapshots = new StackSnapshot[index.size()];
+		for(int i = 0; i < pileSnapshots.length; i++){
+			pileSnapshots[i] = index.get(i).snapshot();
+		}
+
+		pendingAnimations.drainTo(animationQueue); //Takes the new animations.
+		updateAnimationQueue();
+		StackSnapshot[] animated = new StackSnapshot[animationQueue.size()];
+		int i = 0;
+		for(StackOfCards stack : animationQueue){
+			animated[i++] = stack.snapshot();
+		}
+		board = new BoardSnapshot(pileSnapshots, inUse.snapshot(), animated);
+	}
+
 	/**
 	 * Paints all of the stacks. This should be placed in the container's paint
-	 * method.
+	 * method. The piles are copied from the {@link #layer}, then the cards
+	 * being moved are drawn over them. How long this takes is counted in the
+	 * {@link #metrics}.
+	 * <p>
+	 * Only the last published board is read (see {@link #publish()}), and it is
+	 * read once, so painting never takes a lock, and every stack is drawn as of
+	 * the same change, never in between two.
 	 */
 	public void paint(Graphics pane){
-		if(initialized){
-			for(StackOfCards tableau : tableaux){
-				tableau.draw(pane);
-			}
-			for(StackOfCards foundation : foundations){
-				foundation.draw(pane);
+		BoardSnapshot board = this.board; //Read once for the whole frame.
+		if(initialized && board != null){
+			long start = System.nanoTime();
+			layer.paint(pane, board);
+
+			//Stacks outside of the region being repainted are skipped.
+			Rectangle clip = pane.getClipBounds();
+			if(!board.inUse().isEmpty()){
+				board.inUse().draw(pane);
 			}
-			if(stock != null && !stock.isEmpty())
-				stock.peek().draw(pane);
-			if(waste != null && !waste.isEmpty())
-				waste.peek().draw(pane);
-			if(inUse != null && !inUse.isEmpty())
-				inUse.draw(pane);
-			
-			updateAnimationQueue();
-			for(StackOfCards stack : animationQueue){
-				if(!stack.isEmpty()){
-					stack.draw(pane);
+			for(int i = 0; i < board.numOfAnimated(); i++){
+				StackSnapshot cards = board.animated(i);
+				if(!cards.isEmpty() && inClip(cards, clip)){
+					cards.draw(pane);
 				}
 			}
+			metrics.painted(System.nanoTime() - start, board.numOfAnimated());
+			if(overlay != null){
+				overlay.paint(pane); //Not counted, as it is not part of the game.
+			}
+		}
+	}
+
+	/**
+	 * Paints the piles of a board, which are the stacks in the index (see
+	 * {@link #indexPiles(PileIndex)}), but not the cards being moved. Of the
+	 * stock, the waste, and the other piles whose cards are not offset, only
+	 * the top card is seen (see {@link StackSnapshot#draw(Graphics)}), and
+	 * nothing is seen of an empty stock or waste.
+	 * @param pane	The graphics to paint with.
+	 * @param board	The board, as published by this game.
+	 */
+	protected void paintPiles(Graphics pane, BoardSnapshot board){
+		PileIndex index = piles(); //In the order of the board.
+		//Stacks outside of the region being repainted are skipped.
+		Rectangle clip = pane.getClipBounds();
+		for(int i = 0; i < board.numOfPiles(); i++){
+			StackSnapshot pile = board.pile(i);
+			StackOfCards stack = index.get(i);
+			if(pile.isEmpty() && (stack == stock || stack == waste)){
+				continue;
+			} else if(inClip(pile, clip)){
+				pile.draw(pane);
+			}
 		}
 	}
 
@@ -495,7 +862,8 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		int numOfNonEmptyTableaux = 0; //To check how many tableaux have cards
 		for(Tableau tableau : tableaux){ //Checks each tableau if it is suitable.
 			
-			if(!Tableau.isSuitable(tableau)){ //If any tableaux is not suitable,
+			//If any tableaux is not one visible, alternating sequence,
+			if(tableau.alternatingRun() != tableau.size()){
 				return false;				  //the user has not won.
 			} else if(tableau.size() != 0){
 				numOfNonEmptyTableaux++;
@@ -511,13 +879,11 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * Pre. <code>hasWon()</code> returns <code>true</code>.
 	 */
 	protected void onWin(){
-		//We start a new anonymous thread with and anonymous runnable object
-		//to play the winning animation.
-		new Thread(new Runnable(){
-			public void run(){
-				winningAnimation();
-			}
-		}).start();
+		//The animation is started unless it is already playing. It does not
+		//block, so no thread is needed for it.
+		if(winning == null || winning.isDone()){
+			winningAnimation();
+		}
 		
 		//Then we show a dialog box to alert the user of the fact.
 		//We start another anonymous thread to show the dialog box because
@@ -531,63 +897,88 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	}
 
 	/**
-	 * Plays the winning animation.
+	 * Starts the winning animation, which moves the cards left in the tableaux
+	 * to the foundations (see {@link WinningCascade}). It returns at once.
 	 * Pre. <code>hasWon()</code> returns <code>true</code>.
+	 * @return A future completed when every card has arrived, which is kept
+	 * 			so that {@link #dispose()} can cancel it.
 	 */
-	protected void winningAnimation(){
-		//We calculate the number of cards in all of the foundations.
-		int sizeOfFoundations = 0;
-		for(Foundation f : foundations){
-			sizeOfFoundations += f.size();
-		}
-
-		while(sizeOfFoundations < 52){ //until all cards are in the foundations.
-			//If the animation queue has more than 5 cards, then we wait so as to
-			//prevent the program from crashing by creating too many threads at
-			if(animationQueue.size() > 6){						//the same time.
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e){}
-				continue; //try again.
-			}
-			for(Foundation foundation : foundations){ //For each foundation:
-				Card temp = foundation.peek(); //For comparisons.
-
-				for(Tableau tableau : tableaux){
-					//If the tableau:
-					//-is not empty
-					//-its top card's value is one greater than temp
-					//-and it has the same suit as temp, then:
-					if(!tableau.isEmpty() &&
-							temp.compareTo(tableau.peek()) == -1
-							&& temp.getSuit() == tableau.peek().getSuit()){
-
-						//move the top card to the foundation and animate it.
-						animateTopCardOf(tableau, foundation);
-						sizeOfFoundations++;//One more card is in a foundation.
-						
-						break; //We don't need to look in another tableau.
-					}
-				}	
-			}
-		}
+	protected CompletableFuture<Void> winningAnimation(){
+		winning = new WinningCascade(this).start();
+		return winning;
 	}
 
 	/**
 	 * Moves the top card of a source stack to the destination and animates it.
 	 * @param source		The stack whose top card is to be moved.
 	 * @param destination	The stack to receive the card.
+	 * @return The animator, whose {@link StackOfCardsAnimator#arrival()} is
+	 * 			completed once the card has arrived.
 	 */
-	protected void animateTopCardOf(StackOfCards source, StackOfCards destination){
+	protected StackOfCardsAnimator animateTopCardOf(StackOfCards source,
+			StackOfCards destination){
 		//Holds one of the cards in use for animation.
-		StackOfCards temp = new StackOfCards(
-				source.getX(), source.peek().getY(), 
-				cardWidth, 0, 0);
+		StackOfCards temp = temporaryStack(source.getX(), 
+				source.cardY(source.size() - 1));
 
-		temp.push(source.pop()); //Moves a card to the temp.
-		animationQueue.enqueue(temp); //and add temp to the queue.
+		source.popRange(1, temp); //Moves a card, as it is turned, to the temp.
+		pendingAnimations.enqueue(temp); //and hand temp to the next board.
 		//Performs the animation.
-		new StackOfCardsAnimator(temp, destination, container);
+		return new StackOfCardsAnimator(temp, destination, this);
+	}
+
+	/**
+	 * Moves the top card of each source stack to the destination at the same
+	 * index, and animates the cards together as one {@link GroupAnimator}.
+	 * The cards are all taken from their sources and turned face up now, in
+	 * order, but each starts to move <code>stagger</code> milliseconds after
+	 * the one before it. Until a card moves, it is drawn where it was, under
+	 * the cards that move before it.
+	 * @param sources		The stacks whose top cards are to be moved, which
+	 * 						may be the same stack more than once.
+	 * @param destinations	The stacks to receive the cards.
+	 * @param stagger		The time between the starts of two cards in
+	 * 						milliseconds.
+	 * @return The animator, whose {@link GroupAnimator#completion()} is
+	 * 			completed once every card has arrived.
+	 * @throws IllegalArgumentException if there are not as many destinations
+	 * 			as sources.
+	 */
+	protected GroupAnimator animateTopCardsOf(StackOfCards[] sources,
+			StackOfCards[] destinations, int stagger){
+		if(sources.length != destinations.length){
+			throw new IllegalArgumentException(
+					"Each source needs one destination.");
+		}
+		StackOfCards[] temps = new StackOfCards[sources.length];
+		for(int i = 0; i < temps.length; i++){
+			StackOfCards source = sources[i];
+			source.setTopHidden(false);
+			temps[i] = temporaryStack(source.getX(), 
+					source.cardY(source.size() - 1));
+			temps[i].push(source.pop());
+		}
+		//The cards are painted in the order that they are handed over, so the
+		//last to move is handed over first, to be drawn under the others.
+		for(int i = temps.length - 1; i >= 0; i--){
+			pendingAnimations.enqueue(temps[i]);
+		}
+		return new GroupAnimator(temps, destinations, stagger, this);
+	}
+
+	/**
+	 * Returns an empty stack at the given location to hold a card while it is
+	 * animated, taken from the {@link #spareStacks} if there is one.
+	 */
+	protected StackOfCards temporaryStack(int x, int y){
+		StackOfCards temp = spareStacks.dequeue();
+		if(temp == null){
+			temp = new StackOfCards(x, y, cardWidth, 0, 0);
+			metrics.watch(temp);
+			return temp;
+		}
+		temp.setLocation(x, y);
+		return temp;
 	}
 
 	public void mouseEntered(MouseEvent e){}
@@ -0,0 +1,133 @@
+package solitaire;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Starts and disposes of games back to back in one panel, as the menu of
+ * {@link Solitaire} does, to show that a disposed game leaves nothing behind
+ * (see {@link Klondike#dispose()}). Each game is started, painted, and shows
+ * its performance overlay, and has cards being animated when it is disposed.
+ * <p>
+ * Every 1000 games the heap in use after a garbage collection, the number of
+ * live threads, and the number of mouse listeners of the panel are printed.
+ * The first report is taken after one game of each kind has been played, so
+ * that the threads and classes that every game shares already exist. If the
+ * panel still has a listener, there are more threads than at the first report,
+ * or the heap has grown by more than {@value #HEAP_TOLERANCE} bytes since it,
+ * the program says why and exits with status 1. Runs headless.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class LifecycleSoak {
+	/** The number of games between two reports.							*/
+	private static final int REPORT = 1000;
+
+	/** How many bytes the heap may grow by over the run.					*/
+	private static final long HEAP_TOLERANCE = 4000000;
+
+	/** The heap in use and the number of threads at the first report.		*/
+	private static long firstHeap, firstThreads;
+
+	/**
+	 * Plays the games and prints the reports.
+	 * @param args The number of games, 10000 by default.
+	 */
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		int numOfGames = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+		final JPanel panel = new JPanel();
+		final BufferedImage image = new BufferedImage(790, 720,
+				BufferedImage.TYPE_INT_RGB);
+		for(int g = 0; g < 5; g++){ //One of each kind, before the first report.
+			final int kind = g;
+			SwingUtilities.invokeAndWait(new Runnable(){
+				public void run(){
+					play(kind, panel, image);
+				}
+			});
+		}
+		report(0, panel);
+		for(int first = 0; first < numOfGames; first += REPORT){
+			final int last = Math.min(first + REPORT, numOfGames);
+			for(int g = first; g < last; g++){
+				final int kind = g % 5;
+				SwingUtilities.invokeAndWait(new Runnable(){
+					public void run(){
+						play(kind, panel, image);
+					}
+				});
+			}
+			report(last, panel);
+		}
+		System.exit(0); //Stops the event dispatch thread.
+	}
+
+	/**
+	 * Starts a game of the given kind, paints it, starts animating some of its
+	 * cards, and disposes of it.
+	 */
+	private static void play(int kind, JPanel panel, BufferedImage image){
+		Klondike game = kind == 0 ? new Klondike(panel)
+				: kind == 1 ? new FreeCell(panel)
+				: kind == 2 ? new Spider(panel, true)
+				: kind == 3 ? new Spider(panel, false)
+				: new Yukon(panel);
+		game.start();
+		game.getOverlay().setVisible(true); //Starts its timer.
+
+		Graphics2D pane = image.createGraphics();
+		game.paint(pane);
+		pane.dispose();
+
+		if(game instanceof Spider){ //Deals from the stock as one group.
+			game.stockPressedAction(game.stock.getX(), game.stock.getY());
+		} else { //Moves a card between two tableaux.
+			game.animateTopCardOf(game.tableaux[0], game.tableaux[1]);
+		}
+		game.dispose();
+	}
+
+	/**
+	 * Prints the heap in use after a garbage collection, the number of threads,
+	 * and the number of mouse listeners of the panel, and exits with status 1
+	 * if any of them shows a leak. The first report is kept to compare the
+	 * others with.
+	 */
+	private static void report(int games, JPanel panel){
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 3; i++){
+			System.gc();
+		}
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		int threads = Thread.activeCount();
+		int listeners = panel.getMouseListeners().length;
+		System.out.printf("%6d games: heap %6.1f MB, %d threads, %d listeners%n",
+				games, used / 1e6, threads, listeners);
+
+		if(games == 0){
+			firstHeap = used;
+			firstThreads = threads;
+		}
+		if(listeners > 0){
+			fail(listeners + " mouse listeners are left on the panel");
+		} else if(threads > firstThreads){
+			fail("the threads grew from " + firstThreads + " to " + threads);
+		} else if(used - firstHeap > HEAP_TOLERANCE){
+			fail(String.format("the heap grew by %.1f MB",
+					(used - firstHeap) / 1e6));
+		}
+	}
+
+	/**
+	 * Prints why the soak failed and exits with status 1.
+	 */
+	private static void fail(String reason){
+		System.err.println("FAILED: " + reason);
+		System.exit(1);
+	}
+}
\ No newline at end of file
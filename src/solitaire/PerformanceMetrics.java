@@ -0,0 +1,299 @@
+package solitaire;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import card.StackOfCards;
+
+/**
+ * Counts what a game does to draw itself, to find out why the board stutters.
+ * The game and its animators call the counting methods, which only add to
+ * counters, and {@link #snapshot()} turns the counts into the figures of a
+ * {@link Snapshot}:
+ * <ul>
+ * <li> the median and 99th percentile of the time that the last
+ * 		{@value #SAMPLES} paints took,
+ * <li> the number of repaints requested per second, and how many of them were
+ * 		coalesced by the container into another paint,
+ * <li> the number of animators running and the number of stacks in the
+ * 		game's animation queue, and
+ * <li> the number of changes to the cards of the game's stacks per second: its
+ * 		piles, the cards in use, and the stacks being animated (see
+ * 		{@link #watch(StackOfCards)}).
+ * </ul>
+ * The counting methods may be called by any thread, and none of them takes a
+ * lock, so a thread taking snapshots never makes the painting thread wait. The
+ * rates are measured over at least a second, so they only change once a
+ * second however often a snapshot is taken.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class PerformanceMetrics {
+	/** The number of the most recent paints whose times are kept.			*/
+	public static final int SAMPLES = 512;
+
+	/** The shortest time, in nanoseconds, that rates are measured over.	*/
+	private static final long INTERVAL = 1000000000L;
+
+	/** The times that the most recent paints took in nanoseconds, as a ring.
+	 *  A snapshot may see a slot just before or after a paint writes it.	*/
+	private final AtomicLongArray paintTimes = new AtomicLongArray(SAMPLES);
+
+	/** The number of paints, the next of which is put in paintTimes at
+	 *  paints % SAMPLES.													*/
+	private final AtomicLong paints = new AtomicLong();
+
+	/** The number of stacks in the animation queue after the last paint.	*/
+	private volatile int animationQueueDepth;
+
+	/** The number of repaints requested.									*/
+	private final LongAdder repaints = new LongAdder();
+
+	/** The number of changes to the cards of the watched stacks.			*/
+	private final LongAdder mutations = new LongAdder();
+
+	/** The number of animators that have started but not finished.			*/
+	private final AtomicInteger animators = new AtomicInteger();
+
+	/** The totals and time when the rates were last measured. Guarded by
+	 *  this.																*/
+	private long lastTime, lastPaints, lastRepaints, lastMutations;
+
+	/** The snapshot of the last measured rates. Guarded by this.			*/
+	private Snapshot last;
+
+	/**
+	 * Instantiates the metrics of a game with no counts.
+	 */
+	public PerformanceMetrics(){
+		lastTime = System.nanoTime();
+	}
+
+	/**
+	 * Counts the changes to the cards of a stack of the game from now on (see
+	 * {@link StackOfCards#countChanges(LongAdder)}). Called by the thread that
+	 * changes the stack, once for each stack.
+	 */
+	public void watch(StackOfCards stack){
+		stack.countChanges(mutations);
+	}
+
+	/**
+	 * Counts a paint of the game. Called by the painting thread. Takes no
+	 * lock.
+	 * @param nanos					How long the paint took.
+	 * @param animationQueueDepth	The number of stacks being animated.
+	 */
+	public void painted(long nanos, int animationQueueDepth){
+		paintTimes.set((int)(paints.getAndIncrement() % SAMPLES), nanos);
+		this.animationQueueDepth = animationQueueDepth;
+	}
+
+	/**
+	 * Counts a request to repaint a region of the container.
+	 */
+	public void repaintRequested(){
+		repaints.increment();
+	}
+
+	/**
+	 * Counts an animator that has started.
+	 */
+	public void animatorStarted(){
+		animators.incrementAndGet();
+	}
+
+	/**
+	 * Counts an animator that has finished.
+	 */
+	public void animatorFinished(){
+		animators.decrementAndGet();
+	}
+
+	/**
+	 * Returns the current figures. The rates are measured again if at least a
+	 * second has passed since they were last measured. Only the threads taking
+	 * snapshots wait for each other; the counting methods never wait for them.
+	 */
+	public synchronized Snapshot snapshot(){
+		long now = System.nanoTime();
+		long paints = this.paints.get();
+		long[] sorted = sortedPaintTimes(paints);
+		long totalRepaints = repaints.sum();
+		long totalMutations = mutations.sum();
+		if(last == null || now - lastTime >= INTERVAL){
+			double seconds = Math.max(now - lastTime, 1) / 1e9;
+			long newPaints = paints - lastPaints;
+			long newRepaints = totalRepaints - lastRepaints;
+			last = new Snapshot(paints, percentile(sorted, 50),
+					percentile(sorted, 99), newRepaints / seconds,
+					Math.max(0, newRepaints - newPaints) / seconds,
+					animators.get(), animationQueueDepth,
+					(totalMutations - lastMutations) / seconds);
+			lastTime = now;
+			lastPaints = paints;
+			lastRepaints = totalRepaints;
+			lastMutations = totalMutations;
+		} else { //Only the figures that are not rates are updated.
+			last = new Snapshot(paints, percentile(sorted, 50),
+					percentile(sorted, 99), last.repaintsPerSecond,
+					last.coalescedPerSecond, animators.get(), animationQueueDepth,
+					last.mutationsPerSecond);
+		}
+		return last;
+	}
+
+	/**
+	 * Returns a sorted copy of the kept paint times, of which there are as many
+	 * as the given number of paints, up to {@value #SAMPLES}.
+	 */
+	private long[] sortedPaintTimes(long paints){
+		long[] sorted = new long[(int)Math.min(paints, SAMPLES)];
+		for(int i = 0; i < sorted.length; i++){
+			sorted[i] = paintTimes.get(i);
+		}
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Returns the given percentile of the sorted paint times in microseconds,
+	 * or 0 if nothing has been painted.
+	 */
+	private static double percentile(long[] sorted, int percent){
+		int count = sorted.length;
+		if(count == 0){
+			return 0;
+		}
+		//The nearest rank: the smallest time that at least percent% of the
+		//times are no greater than.
+		int rank = Math.max(1, (count * percent + 99) / 100);
+		return sorted[rank - 1] / 1e3;
+	}
+
+	/**
+	 * The figures of a game's metrics at one time.
+	 */
+	public static final class Snapshot {
+		/** The number of paints so far.										*/
+		private final long paints;
+
+		/** The median and 99th percentile of the paint times in microseconds.	*/
+		private final double paintMedian, paint99thPercentile;
+
+		/** The number of repaints requested and coalesced per second.			*/
+		private final double repaintsPerSecond, coalescedPerSecond;
+
+		/** The number of animators running.									*/
+		private final int animators;
+
+		/** The number of stacks in the animation queue.						*/
+		private final int animationQueueDepth;
+
+		/** The number of changes to the piles per second.						*/
+		private final double mutationsPerSecond;
+
+		/**
+		 * Instantiates the snapshot with all of its figures.
+		 */
+		private Snapshot(long paints, double paintMedian,
+				double paint99thPercentile, double repaintsPerSecond,
+				double coalescedPerSecond, int animators,
+				int animationQueueDepth, double mutationsPerSecond){
+			this.paints = paints;
+			this.paintMedian = paintMedian;
+			this.paint99thPercentile = paint99thPercentile;
+			this.repaintsPerSecond = repaintsPerSecond;
+			this.coalescedPerSecond = coalescedPerSecond;
+			this.animators = animators;
+			this.animationQueueDepth = animationQueueDepth;
+			this.mutationsPerSecond = mutationsPerSecond;
+		}
+
+		/**
+		 * Returns the number of times the game has been painted.
+		 */
+		public long paints(){
+			return paints;
+		}
+
+		/**
+		 * Returns the median time of the recent paints in microseconds.
+		 */
+		public double paintMedian(){
+			return paintMedian;
+		}
+
+		/**
+		 * Returns the 99th percentile of the time of the recent paints in
+		 * microseconds.
+		 */
+		public double paint99thPercentile(){
+			return paint99thPercentile;
+		}
+
+		/**
+		 * Returns the number of repaints requested per second.
+		 */
+		public double repaintsPerSecond(){
+			return repaintsPerSecond;
+		}
+
+		/**
+		 * Returns the number of requested repaints per second that did not
+		 * cause a paint of their own, because the container merged them with
+		 * another request. Paints that were not requested by the game, such as
+		 * when the window is uncovered, are not told apart, so this may be too
+		 * low.
+		 */
+		public double coalescedPerSecond(){
+			return coalescedPerSecond;
+		}
+
+		/**
+		 * Returns the number of animators running.
+		 */
+		public int animators(){
+			return animators;
+		}
+
+		/**
+		 * Returns the number of stacks in the animation queue after the last
+		 * paint.
+		 */
+		public int animationQueueDepth(){
+			return animationQueueDepth;
+		}
+
+		/**
+		 * Returns the number of changes to the cards of the game's stacks per
+		 * second.
+		 */
+		public double mutationsPerSecond(){
+			return mutationsPerSecond;
+		}
+
+		/**
+		 * Returns the figures as lines of text, as shown by the overlay.
+		 */
+		public String[] toLines(){
+			return new String[] {
+				String.format("paint p50 %.0f us  p99 %.0f us",
+						paintMedian, paint99thPercentile),
+				String.format("repaints %.0f/s  coalesced %.0f/s",
+						repaintsPerSecond, coalescedPerSecond),
+				String.format("animators %d  queue %d",
+						animators, animationQueueDepth),
+				String.format("mutations %.0f/s", mutationsPerSecond)
+			};
+		}
+
+		@Override
+		public String toString(){
+			return String.join(", ", toLines());
+		}
+	}
+}
\ No newline at end of file
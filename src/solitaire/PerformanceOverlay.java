@@ -0,0 +1,121 @@
+package solitaire;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+/**
+ * Shows the figures of a game's {@link PerformanceMetrics} in a box in the top
+ * right corner of the board. It is hidden until {@link #setVisible(boolean)}
+ * is called.
+ * <p>
+ * As the game only repaints the regions that change, the box is repainted by a
+ * timer twice a second while it is shown, so that its figures stay current
+ * when nothing else is painted.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class PerformanceOverlay implements ActionListener {
+	/** The font of the figures.											*/
+	private static final Font FONT = new Font("Monospaced", Font.PLAIN, 12);
+
+	/** The height of each line and the margin around the lines.			*/
+	private static final int LINE_HEIGHT = 14, MARGIN = 6;
+
+	/** The width of the box.												*/
+	private static final int WIDTH = 280;
+
+	/** The background of the box, a translucent black.						*/
+	private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+
+	/** The game whose figures are shown.									*/
+	private final Klondike game;
+
+	/** Repaints the box while it is shown.									*/
+	private final Timer timer;
+
+	/** Whether the box is shown.											*/
+	private volatile boolean visible;
+
+	/**
+	 * Instantiates the overlay of a game, hidden.
+	 * @param game The game whose metrics are shown.
+	 */
+	public PerformanceOverlay(Klondike game){
+		this.game = game;
+		timer = new Timer(500, this);
+	}
+
+	/**
+	 * Shows or hides the box.
+	 * @param visible Whether the box is shown.
+	 */
+	public void setVisible(boolean visible){
+		this.visible = visible;
+		if(visible){
+			timer.start();
+		} else {
+			timer.stop();
+		}
+		repaint();
+	}
+
+	/**
+	 * Determines whether the box is shown.
+	 */
+	public boolean isVisible(){
+		return visible;
+	}
+
+	/**
+	 * Paints the box if it is shown and within the clip of the graphics. This is
+	 * called by the game after it is painted.
+	 * @param pane The graphics to paint with.
+	 */
+	public void paint(Graphics pane){
+		Rectangle bounds = getBounds();
+		Rectangle clip = pane.getClipBounds();
+		if(!visible || (clip != null && !clip.intersects(bounds))){
+			return;
+		}
+		pane.setColor(BACKGROUND);
+		pane.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+		pane.setColor(Color.WHITE);
+		pane.setFont(FONT);
+		String[] lines = game.metrics.snapshot().toLines();
+		for(int i = 0; i < lines.length; i++){
+			pane.drawString(lines[i], bounds.x + MARGIN,
+					bounds.y + MARGIN + (i + 1) * LINE_HEIGHT - 3);
+		}
+	}
+
+	/**
+	 * Returns the region of the container covered by the box.
+	 */
+	public Rectangle getBounds(){
+		int lines = 4; //As in PerformanceMetrics.Snapshot.toLines().
+		return new Rectangle(game.container.getWidth() - WIDTH - MARGIN, MARGIN,
+				WIDTH, lines * LINE_HEIGHT + 2 * MARGIN);
+	}
+
+	/**
+	 * Repaints the box when the timer fires.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e){
+		repaint();
+	}
+
+	/**
+	 * Repaints the region of the box.
+	 */
+	private void repaint(){
+		Rectangle bounds = getBounds();
+		game.container.repaint(bounds.x, bounds.y, bounds.width, bounds.height);
+	}
+}
\ No newline at end of file
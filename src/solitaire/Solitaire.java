@@ -7,6 +7,7 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
 
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
@@ -33,11 +34,15 @@ public class Solitaire extends JPanel implements ActionListener {
 	/** Holds the button to display the rules.								*/
 	private JMenuItem rulesItem;
 
+	/** Turns the performance overlay of the game on and off.				*/
+	private JCheckBoxMenuItem overlayItem;
+
 	/** 
 	 * Instantiates this with Klondike Solitaire by default.
 	 */
 	public Solitaire(){
 		game = new Klondike(this);
+		game.start();
 	}
 
 	/** 
@@ -86,6 +91,12 @@ public class Solitaire extends JPanel implements ActionListener {
 		rulesMenu.add(rulesItem);
 		bar.add(rulesMenu);
 
+		JMenu viewMenu = new JMenu("View"); //To show the performance overlay.
+		overlayItem = new JCheckBoxMenuItem("Performance");
+		overlayItem.addActionListener(this);
+		viewMenu.add(overlayItem);
+		bar.add(viewMenu);
+
 		return bar; //The bar has been created.
 	}
 
@@ -101,12 +112,14 @@ public class Solitaire extends JPanel implements ActionListener {
 			} catch (IOException ex){}
 			
 			return; //So we don't remove the listeners.
+		} else if(e.getSource() == overlayItem){
+			game.getOverlay().setVisible(overlayItem.isSelected());
+			return;
 		}
 		
-		//The listeners need to be removed or else there will still be a
-		//reference to the previous game object.
-		this.removeMouseListener(game);
-		this.removeMouseMotionListener(game);
+		//The previous game is disposed of, or else its listeners, animations,
+		//and timers would keep it working and reachable.
+		game.dispose();
 
 		if(e.getSource() == klondikeItem){
 			game = new Klondike(this);
@@ -119,6 +132,8 @@ public class Solitaire extends JPanel implements ActionListener {
 		} else if (e.getSource() == yukonItem){
 			game = new Yukon(this);
 		}
+		game.start();
+		game.getOverlay().setVisible(overlayItem.isSelected());
 		
 		repaint();
 	}
@@ -2,12 +2,11 @@ package solitaire;
 
 import java.awt.Container;
 import java.awt.event.MouseEvent;
+import java.util.Arrays;
 
-import card.Card;
 import card.Foundation;
 import card.StackOfCards;
 import card.Tableau;
-import dataStructures.Stack;
 
 /**
  * A kind of Solitaire that is similar to {@link Klondike} except that two decks
@@ -27,11 +26,19 @@ import dataStructures.Stack;
  * @author Warren Godone-Maresca
  */
 public class Spider extends Klondike {
+	/** The time between the starts of two cards dealt or swept to a
+	 *  foundation together, in milliseconds.								*/
+	private static final int STAGGER = 30;
 
 	/** Whether or not the the game should be easy. If the game is easy, then the
 	 * color of cards is ignored, otherwise the cards' colors must alternate. */
 	private boolean easy;
 
+	/** Whether each foundation, by index, has been chosen for a sequence that
+	 *  is still moving to it. A reserved foundation stays empty until the
+	 *  first card of the sequence arrives, so it must not be chosen again.	*/
+	private boolean[] reserved;
+
 	/**
 	 * Instantiates the game and the panel. Two suits will be used in the game
 	 * when this constructor is used (medium difficulty).
@@ -46,22 +53,29 @@ public class Spider extends Klondike {
 		this.easy = easy;
 	}
 
+	/**
+	 * Instantiates a game that is only drawn, which is made easy, as the
+	 * difficulty does not change how it is drawn. See
+	 * {@link Klondike#Klondike()}.
+	 */
+	public Spider(){
+		easy = true;
+	}
+
 	/**
 	 * Initializes all of the stacks.
 	 */
 	@Override
 	protected void init(){
-		StackOfCards deck = new StackOfCards();
-		deck.fillBySuit();	
-		deck.fillBySuit(); //Holds 104 cards.
-		deck.shuffle();
+		StackOfCards deck = newDeck(2); //Holds 104 cards.
 
 		initTableaux(deck, new int[] {6, 6, 6, 6, 5, 5, 5, 5, 5, 5});
 		initFoundations(8);
+		reserved = new boolean[foundations.length];
 		initStockAndWaste(deck);
 
 		initialized = true;
-		container.repaint();
+		repaintAll();
 	}
 
 	/**
@@ -72,24 +86,22 @@ public class Spider extends Klondike {
 	protected void initStockAndWaste(StackOfCards deck){
 		stock = new StackOfCards(tableaux[0].getX(), yCoord, cardWidth, 0, 0);
 		stock.appendStack(deck); //The stock contains all of its cards.
-		stock.peek().setHidden(true); //So that the stock is hidden.
+		stock.setTopHidden(true); //So that the stock is hidden.
 	}
 
 
 	/**
-	 * Determines if the given stack of cards is suitable to be removed from a
-	 * tableau (assuming that it originated from a tableau).
-	 * @return 	<code>true</code> if the given stack is visible, in sequence,
+	 * Determines if the given number of cards at the top of a tableau may be
+	 * removed from it.
+	 * @return 	<code>true</code> if the cards are visible, in sequence,
 	 * 			and, if not {@link #easy}, that the cards alternate in color.
 	 */
 	@Override
-	protected boolean removableFromTableaux(Stack<Card> cards) {
+	protected boolean removableFromTableau(Tableau tableau, int numOfCards) {
 		if(!easy){
-			return super.removableFromTableaux(cards);
+			return super.removableFromTableau(tableau, numOfCards);
 		} else {
-			return cards != null 
-					&& Tableau.isVisible(cards)
-					&& Tableau.inSequence(cards);
+			return numOfCards > 0 && numOfCards <= tableau.sequenceRun();
 		}
 	}
 
@@ -105,17 +117,16 @@ public class Spider extends Klondike {
 			return false;
 		}
 
-		for(Tableau tableau : tableaux){
-			if(stock.isEmpty()) //If the stock is empty, then there are no cards
-				break;			//to move to a tableau.
-
-			stock.peek().setHidden(false);
-			super.animateTopCardOf(stock, tableau);
-		}
+		//A card is dealt to each tableau, as long as the stock has cards, as one
+		//animation.
+		int numOfCards = Math.min(tableaux.length, stock.size());
+		StackOfCards[] sources = new StackOfCards[numOfCards];
+		Arrays.fill(sources, stock);
+		animateTopCardsOf(sources, Arrays.copyOf(tableaux, numOfCards), STAGGER);
 		if(!stock.isEmpty()){
-			stock.peek().setHidden(true);
+			stock.setTopHidden(true);
 		}
-		container.repaint();
+		repaint(stock);
 		return true;
 	}
 
@@ -134,27 +145,26 @@ public class Spider extends Klondike {
 			return super.tableauxReleasedAction(x, y);
 		}
 
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-
-				//We do not need to check if the cards in use are in sequence
-				//because they must already be in sequence from tabPressedAction.
+		Tableau tableau = tableauAt(x, y);
+		if(tableau != null){
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
 
-				//Checks if bottom of this tableau is in sequence with the cards
-				//in use.
-				if(!tableau.isEmpty() && 
-						inUse.reverseCopy().peek().compareTo(tableau.peek()) != -1){
-					return false;
-				}
+			//We do not need to check if the cards in use are in sequence
+			//because they must already be in sequence from tabPressedAction.
 
-				tableau.appendStack(inUse);
-				inUse.clear();
-				container.repaint();
-				flipLastStack();
-				return true;
+			//Checks if bottom of this tableau is in sequence with the cards
+			//in use.
+			if(!tableau.isEmpty() && 
+					inUse.peekBottom().compareTo(tableau.peek()) != -1){
+				return false;
 			}
+
+			tableau.appendStack(inUse);
+			inUse.clear();
+			repaint(tableau);
+			flipLastStack();
+			return true;
 		}
 		return false;//If we have reached this point, then no action was performed
 	}
@@ -174,7 +184,9 @@ public class Spider extends Klondike {
 
 	/**
 	 * Appends the cards in use to first available foundation if the cards in use
-	 * are in sequence from ace to king.
+	 * are in sequence from ace to king. A foundation is available if it is empty
+	 * and no other sequence is moving to it; it is reserved until every card of
+	 * the sequence has arrived.
 	 * Note: The mouse can be released anywhere, the parameters were inherited
 	 *       but are unused here.
 	 *       
@@ -187,13 +199,25 @@ public class Spider extends Klondike {
 			//Then the cards are not in sequence from ace to king.
 			return false;
 		} else {
-			for(Foundation foundation : foundations){
-
-				if(foundation.isEmpty()){ //If that foundation is empty,
-					//Then we append each card in use to it.
-					while(!inUse.isEmpty()){
-						animateTopCardOf(inUse, foundation);
-					}
+			for(int f = 0; f < foundations.length; f++){
+				Foundation foundation = foundations[f];
+
+				//If that foundation is empty and not awaiting another sequence,
+				if(foundation.isEmpty() && !reserved[f]){
+					//Then we append each card in use to it, from the ace up.
+					StackOfCards[] sources = new StackOfCards[inUse.size()];
+					StackOfCards[] destinations =
+							new StackOfCards[sources.length];
+					Arrays.fill(sources, inUse);
+					Arrays.fill(destinations, foundation);
+					reserved[f] = true;
+					final int index = f;
+					animateTopCardsOf(sources, destinations, STAGGER)
+							.completion().thenRun(new Runnable(){
+						public void run(){
+							reserved[index] = false; //Every card has arrived.
+						}
+					});
 					flipLastStack(); //Flips the top card of the last stack.
 					return true; //The action was performed.
 				}
@@ -1,6 +1,9 @@
 package solitaire;
 
 import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.geom.RoundRectangle2D;
+import java.util.concurrent.CompletableFuture;
 
 import card.StackOfCards;
 
@@ -8,11 +11,27 @@ import card.StackOfCards;
  * Moves a {@link StackOfCards} from a source location to a the location of a 
  * destination {@link StackOfCards}, then upon arrival, appends (then clears) 
  * the stack to be moved to the destination stack. This class does not do the 
- * actual animation but does move the stack (in a new {@link Thread}).
+ * actual animation but does move the stack.
+ * <p>
+ * The stack is moved one step at a time by the {@link AnimationScheduler}
+ * shared by all animators, on the event dispatch thread, and the component
+ * is repainted once per step however many animators are running. The
+ * {@link #arrival()} of an animator is completed when its cards are appended,
+ * so that what comes next can be started then, without waiting or polling.
+ * <p>
+ * Where the stack is depends only on how much time has passed since the
+ * animation started, eased so that it speeds up and then slows down, and not
+ * on how many steps there were. So when the steps come late, such as when
+ * painting falls behind, the stack skips ahead rather than slowing down, and it
+ * always arrives {@value #DURATION} milliseconds after it started, exactly at
+ * the destination's {@link StackOfCards#shapeOfNextCard()}, even if the
+ * destination changed on the way.
  * 
  * @author Warren Godone-Maresca
  */
-public class StackOfCardsAnimator implements Runnable {
+public class StackOfCardsAnimator extends Animation {
+	/** How long every animation takes in milliseconds.						*/
+	public static final int DURATION = 300;
 	
 	/** The stack to be moved.												*/
 	private StackOfCards cards;
@@ -20,26 +39,24 @@ public class StackOfCardsAnimator implements Runnable {
 	/** The destination stack.												*/
 	private StackOfCards destination;
 
-	/** The position of cards while being moved in double precision.		*/
-	private double x, y;
+	/** The location the cards started from.								*/
+	private int startX, startY;
 
-	/** The velocity of the stack being moved.								*/
-	private double dx, dy;
+	/** The time the animation starts, from {@link System#nanoTime()}.		*/
+	private long startTime;
 
-	/** The acceleration of the stack being moved.							*/
-	private double accelerationX, accelerationY;
-
-	/** The component to be repainted.										*/
-	private Component component;
+	/** Completed when the cards have been appended to the destination.		*/
+	private final CompletableFuture<Void> arrival =
+			new CompletableFuture<Void>();
 
 	/**
 	 * Instantiates the animation. The stack <code>cards</code> will be moved
-	 * (with acceleration) towards the destination. Then the when <code>cards
-	 * </code> arrives to the destination, it will be appended to <code>
-	 * destination</code>. Afterwards, <code>cards</code> will be cleared of its
-	 * elements. The position of <code>destination</code> will be unmodified.
-	 * Additionally, all of the cards in <code>cards</code> will be moved 
-	 * together and will be appended in the original order.
+	 * (eased, over {@value #DURATION} milliseconds) towards the destination.
+	 * Then the when <code>cards</code> arrives to the destination, it will be
+	 * appended to <code>destination</code>. Afterwards, <code>cards</code>
+	 * will be cleared of its elements. The position of <code>destination</code>
+	 * will be unmodified. Additionally, all of the cards in <code>cards</code>
+	 * will be moved together and will be appended in the original order.
 	 * <p>
 	 * If a non-null component is given, then the component will be repainted
 	 * in each step.
@@ -52,85 +69,132 @@ public class StackOfCardsAnimator implements Runnable {
 	 */
 	public StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
 			Component component){
-		this.cards = cards;
-		this.destination = destination;
-		
-		//The new position of cards.
-		int destinationX = (int)destination.shapeOfNextCard().getCenterX();
-		int destinationY = (int)destination.shapeOfNextCard().getCenterY();
-
-		this.component = component;
+		this(cards, destination, component, null);
+	}
 
-		//The difference in x and y between the two stacks and the hypotenuse
-		//of the resulting triangle.
-		int deltaX = destinationX - cards.getX();
-		int deltaY = destinationY - cards.getY();
-		double hyp = Math.sqrt(deltaX*deltaX + deltaY*deltaY);
+	/**
+	 * Instantiates the animation as above, counting it and its repaints in the
+	 * given metrics.
+	 * 
+	 * @param cards			The stack to be moved and appended.
+	 * @param destination	The stack to receive the cards.
+	 * @param component		The component to be repainted, or <code>null</code>.
+	 * @param metrics		The metrics of the game, or <code>null</code>.
+	 * @throws NullPointerException if either stack of cards is null.
+	 */
+	public StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
+			Component component, PerformanceMetrics metrics){
+		super(component, metrics);
+		start(cards, destination);
+	}
 
-		dx = deltaX / hyp; //cosine of the angle.
-		dy = deltaY / hyp; //sine of the angle.
-		accelerationX = dx; //The acceleration and velocity vectors point in the
-		accelerationY = dy; //same direction with equal initial values.
+	/**
+	 * Instantiates the animation as above, of stacks of the given game. The
+	 * game's container is repainted, the animation is counted in the game's
+	 * metrics, and the game's board is published after each step.
+	 * 
+	 * @param cards			The stack to be moved and appended.
+	 * @param destination	The stack to receive the cards.
+	 * @param game			The game that the stacks are in.
+	 * @throws NullPointerException if either stack of cards is null.
+	 */
+	StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
+			Klondike game){
+		super(game);
+		start(cards, destination);
+	}
 
-		x = cards.getX();
-		y = cards.getY();
+	/**
+	 * Instantiates an animation that is not scheduled, to be moved by another
+	 * animation that owns it, such as a {@link GroupAnimator}. It is not
+	 * counted in any metrics and repaints nothing itself.
+	 * @param cards			The stack to be moved and appended.
+	 * @param destination	The stack to receive the cards.
+	 * @param startTime		When the cards start to move, from
+	 * 						{@link System#nanoTime()}. They stay where they are
+	 * 						until then.
+	 */
+	StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
+			long startTime){
+		super(null, null);
+		this.cards = cards;
+		this.destination = destination;
+		startX = cards.getX();
+		startY = cards.getY();
+		this.startTime = startTime;
+	}
 
-		Thread thread = new Thread(this);
-		thread.start(); //Starts the thread to run the animation.
+	/**
+	 * Starts moving the cards from where they are now and schedules the
+	 * animation.
+	 */
+	private void start(StackOfCards cards, StackOfCards destination){
+		this.cards = cards;
+		this.destination = destination;
+		startX = cards.getX();
+		startY = cards.getY();
+		startTime = System.nanoTime();
+		AnimationScheduler.schedule(this); //Starts the animation.
 	}
 
 	/**
-	 * Moves <code>cards</code> from its initial location to the destination
-	 * stack then appends it to the destination stack.
+	 * Moves <code>cards</code> to where it is at the given time, or, if the
+	 * animation is over, to the destination and appends it to the destination
+	 * stack. Called by the scheduler on each tick. Nothing is repainted before
+	 * the animation starts.
+	 * @param now		The time of the tick, from {@link System#nanoTime()}.
+	 * @param damage	Set to the region that needs to be repainted.
+	 * @return <code>true</code> if the cards are still moving, or
+	 * 			<code>false</code> if they have been appended.
 	 */
 	@Override
-	public void run(){
-		while(!hasArrived()){ //until cards arrives to the destination.
-			x += dx; //update the position,
-			y += dy;
-
-			dx += accelerationX; //and the velocity.
-			dy += accelerationY;
-
-			cards.setLocation((int)x, (int)y); //Set the location.
-
-			try {
-				Thread.sleep(10); //Then wait a few milliseconds.
-			} catch (InterruptedException e){}
-
-			if(component != null){	 //If its not null,
-				component.repaint(); //repaint.
-			}
+	boolean step(long now, Rectangle damage){
+		if(now < startTime){
+			damage.setBounds(0, 0, 0, 0); //Then the cards have not moved.
+			return true;
+		}
+		damage.setBounds(cards.getBounds()); //Where the cards were drawn.
+
+		//The destination is read on each step, as it may have changed.
+		RoundRectangle2D target = destination.shapeOfNextCard();
+		double progress = (now - startTime) / (DURATION * 1e6);
+		if(progress < 1){
+			double eased = ease(Math.max(progress, 0));
+			cards.setLocation(
+					(int)Math.round(startX + (target.getCenterX() - startX)*eased),
+					(int)Math.round(startY + (target.getCenterY() - startY)*eased));
+			damage.add(cards.getBounds()); //And where they are now.
+			return true;
 		}
 
+		//Lands exactly on the destination.
+		cards.setLocation((int)target.getCenterX(), (int)target.getCenterY());
 		try{
 			destination.appendStack(cards); //appends the cards.
 		} catch(IllegalArgumentException e){}//some stacks may throw an exception.
 		
 		cards.clear();
-		component.repaint();
+		damage.add(destination.getBounds());
+		finished();
+		arrival.complete(null); //Runs what waits for it on this thread.
+		return false;
 	}
 
 	/**
-	 * Determines if the cards have arrived (have past the destination).
-	 * @return <code>true</code> if it has arrived, else <code>false</code>.
+	 * Returns how far along the way the cards are, from 0 to 1, at the given
+	 * fraction of the duration, from 0 to 1. The cards speed up over the first
+	 * half and slow down over the second.
 	 */
-	private boolean hasArrived(){
-		boolean arrivedX, arrivedY;
-
-		//The sign of the velocity indicates the which side of the destination
-		//that cards where initially on. If cards is still on that side,
-		//then it hasn't arrived.
-		if(dx < 0){
-			arrivedX = cards.getX() <= destination.shapeOfNextCard().getCenterX();
-		} else {
-			arrivedX = cards.getX() >= destination.shapeOfNextCard().getCenterX();
-		}
-		if(dy < 0){
-			arrivedY = cards.getY() <= destination.shapeOfNextCard().getCenterY();
-		} else {
-			arrivedY = cards.getY() >= destination.shapeOfNextCard().getCenterY();
-		}
-		return arrivedX && arrivedY; //Cards must arrive in both dimensions.
+	static double ease(double t){
+		return t*t*(3 - 2*t);
+	}
+
+	/**
+	 * Returns a future that is completed on the event dispatch thread once the
+	 * cards have been appended to the destination. Actions added to it run on
+	 * that thread, between two steps of the animations.
+	 */
+	public CompletableFuture<Void> arrival(){
+		return arrival;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package solitaire;
+
+import java.util.concurrent.CompletableFuture;
+
+import card.Card;
+import card.Foundation;
+import card.Suit;
+import card.Tableau;
+
+/**
+ * Moves the cards left in the tableaux of a won game to the foundations, each
+ * card animated, as the winning animation of a {@link Klondike} game.
+ * <p>
+ * Nothing waits or polls. Each card's move completes a future when the card
+ * arrives, and that arrival launches the next cards, so the cascade takes time
+ * in proportion to the number of cards. At most {@value #WINDOW} cards are in
+ * flight at once, and at most one per foundation, as a foundation only accepts
+ * its cards in order. The next card of a foundation is found in constant time
+ * from an index of the tableau holding each card, built once when the cascade
+ * starts, since cards only leave the tableaux while it runs.
+ * <p>
+ * The arrivals, and so the launches, happen on the event dispatch thread (see
+ * {@link AnimationScheduler}).
+ *
+ * @author Warren Godone-Maresca
+ */
+final class WinningCascade {
+	/** The largest number of cards in flight at once.						*/
+	static final int WINDOW = 6;
+
+	/** The game whose cards are moved.										*/
+	private final Klondike game;
+
+	/** The tableau holding each card, by id, or <code>null</code> if the card
+	 *  is not in a tableau.												*/
+	private final Tableau[] holders = new Tableau[Card.NUM_OF_IDS];
+
+	/** Whether a card is in flight to each foundation. Guarded by this.	*/
+	private final boolean[] busy;
+
+	/** The number of cards in flight. Guarded by this.						*/
+	private int inFlight;
+
+	/** The number of cards not yet launched. Guarded by this.				*/
+	private int remaining;
+
+	/** Completed when every card has arrived.								*/
+	private final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+	/**
+	 * Indexes the cards in the tableaux of a game. Nothing is moved until the
+	 * cascade is started.
+	 * @param game The game, whose user has won.
+	 */
+	WinningCascade(Klondike game){
+		this.game = game;
+		busy = new boolean[game.foundations.length];
+		for(Tableau tableau : game.tableaux){
+			for(int i = 0; i < tableau.size(); i++){
+				holders[tableau.get(i).getId()] = tableau;
+			}
+			remaining += tableau.size();
+		}
+	}
+
+	/**
+	 * Launches the first cards.
+	 * @return A future completed when every card has arrived, or completed
+	 * 			exceptionally with an {@link IllegalStateException} if cards are
+	 * 			left that cannot be moved to a foundation. Cancelling it stops
+	 * 			the cascade; the cards in flight still arrive.
+	 */
+	CompletableFuture<Void> start(){
+		launch();
+		return done;
+	}
+
+	/**
+	 * Launches the next card of each foundation that has no card in flight and
+	 * whose next card is at the top of a tableau, while fewer than
+	 * {@value #WINDOW} cards are in flight. A launch uncovers another card, which
+	 * may be the next card of a foundation already looked at, so this repeats
+	 * until no card is launched. Nothing is launched once the future of the
+	 * cascade is done, such as when it has been cancelled.
+	 */
+	private synchronized void launch(){
+		if(done.isDone()){
+			return; //Then the cascade was cancelled.
+		}
+		boolean launched = true;
+		while(launched && inFlight < WINDOW){
+			launched = false;
+			for(int f = 0; f < busy.length && inFlight < WINDOW; f++){
+				Tableau source = busy[f] ? null : sourceOf(game.foundations[f]);
+				if(source != null){
+					launch(f, source);
+					launched = true;
+				}
+			}
+		}
+
+		if(inFlight == 0){ //Then no arrival is left to launch another card.
+			if(remaining == 0){
+				done.complete(null);
+			} else {
+				done.completeExceptionally(new IllegalStateException(
+						remaining + " cards cannot be moved to a foundation."));
+			}
+		}
+	}
+
+	/**
+	 * Moves the top card of a tableau to a foundation, and launches the next
+	 * cards when it arrives.
+	 */
+	private void launch(final int f, Tableau source){
+		busy[f] = true;
+		inFlight++;
+		remaining--;
+		game.animateTopCardOf(source, game.foundations[f]).arrival()
+				.thenRun(new Runnable(){
+			public void run(){
+				arrived(f);
+			}
+		});
+	}
+
+	/**
+	 * Frees the foundation that a card arrived to, and launches the next cards.
+	 */
+	private synchronized void arrived(int f){
+		busy[f] = false;
+		inFlight--;
+		launch();
+	}
+
+	/**
+	 * Returns the tableau whose top card is the next card of a foundation, or
+	 * <code>null</code> if there is none. The next card of an empty foundation
+	 * is any ace.
+	 */
+	private Tableau sourceOf(Foundation foundation){
+		if(!foundation.isEmpty()){
+			Card top = foundation.peek();
+			return top.getValue() == 13 ? null //Then the foundation is full.
+					: holderOfTop(Card.idOf(top.getSuit(), top.getValue() + 1));
+		}
+		for(Suit suit : Suit.values()){
+			Tableau holder = holderOfTop(Card.idOf(suit, 1));
+			if(holder != null){
+				return holder;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the tableau holding the card with the given id if the card is at
+	 * its top, else <code>null</code>.
+	 */
+	private Tableau holderOfTop(int id){
+		Tableau holder = holders[id];
+		return holder != null && !holder.isEmpty() && holder.peek().getId() == id
+				? holder : null;
+	}
+}
\ No newline at end of file
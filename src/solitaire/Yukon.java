@@ -7,7 +7,6 @@ import card.Card;
 import card.Foundation;
 import card.StackOfCards;
 import card.Tableau;
-import dataStructures.Stack;
 
 /**
  * A form of Solitaire that is similar to {@link Klondike}. Unlike Klondike,
@@ -21,9 +20,6 @@ import dataStructures.Stack;
  */
 public class Yukon extends Klondike {
 
-	/** Do nothing constructor.												*/
-	public Yukon(){}
-
 	/**
 	 * Instantiates the game with a {@link Container}.
 	 * @param container The Container (such as window or applet) in which the 
@@ -33,13 +29,18 @@ public class Yukon extends Klondike {
 		super(container);
 	}
 
+	/**
+	 * Instantiates a game that is only drawn. See {@link Klondike#Klondike()}.
+	 */
+	public Yukon(){}
+
 	/**
 	 * Initializes the game's stacks.
 	 */
 	@Override
 	protected void init(){
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = newDeck(1);
 
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
@@ -47,7 +48,7 @@ public class Yukon extends Klondike {
 		initFoundations(4);
 
 		initialized = true; //Everything is initialized,
-		container.repaint();//So we repaint.
+		repaintAll();		//So we repaint.
 	}
 
 	/**
@@ -64,26 +65,28 @@ public class Yukon extends Klondike {
 			tableaux[i] = new Tableau(
 					(cardWidth+10)*(i+1), yCoord + cardWidth*2, cardWidth, offset);
 
-			for(int j = 0; j < initialTableauxSizes[i]; j++){ //Moves cards from
-				tableaux[i].push(source.pop());          //source to tableau
+			//Moves cards from the source to the tableau, while it has cards.
+			for(int j = 0; j < initialTableauxSizes[i] && !source.isEmpty(); 
+					j++){
+				tableaux[i].push(source.pop());
 
 				if(j > initialTableauxSizes[i] - 6){ //We show the top 6 cards
-					tableaux[i].peek().setHidden(false);
+					tableaux[i].setTopHidden(false);
 				} else {
-					tableaux[i].peek().setHidden(true);
+					tableaux[i].setTopHidden(true);
 				}
 			}
 		}
 	}
 
 	/**
-	 * Determines if the given stack of cards is suitable to be removed from a
-	 * tableau (assuming that it originated from a tableau).
-	 * @return 	<code>true</code> if all cards in the given stack is visible.
+	 * Determines if the given number of cards at the top of a tableau may be
+	 * removed from it.
+	 * @return 	<code>true</code> if all of the cards are visible.
 	 */
 	@Override
-	protected boolean removableFromTableaux(Stack<Card> cards){
-		return Tableau.isVisible(cards);
+	protected boolean removableFromTableau(Tableau tableau, int numOfCards){
+		return numOfCards > 0 && numOfCards <= tableau.faceUpRun();
 	}
 
 	/**
@@ -93,7 +96,7 @@ public class Yukon extends Klondike {
 	@Override
 	public void mousePressed(MouseEvent e){
 		if(hasWon()){				//If the user has won,
-			container.repaint();	//repaint and
+			repaintAll();			//repaint and
 			onWin();				//perform the on win action
 			return;
 		} else if(inUse.isEmpty()){
@@ -110,26 +113,25 @@ public class Yukon extends Klondike {
 	 */
 	@Override
 	protected boolean tableauxReleasedAction(int x, int y) {
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-
-				//Checks if bottom of this tableau is in sequence with the cards
-				//in use and the colors alternate. If not, then we return false.
-				Card bottom = inUse.reverseCopy().peek();
-				if(!tableau.isEmpty() &&
-						(bottom.compareTo(tableau.peek()) != -1
-						|| bottom.colorEquals(tableau.peek()))){
-					return false;
-				}
-
-				tableau.appendStack(inUse); //Else we append the cards in use.
-				inUse.clear();
-				container.repaint();
-				flipLastStack();
-				return true;
+		Tableau tableau = tableauAt(x, y);
+		if(tableau != null){
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
+
+			//Checks if bottom of this tableau is in sequence with the cards
+			//in use and the colors alternate. If not, then we return false.
+			Card bottom = inUse.peekBottom();
+			if(!tableau.isEmpty() &&
+					(bottom.compareTo(tableau.peek()) != -1
+					|| bottom.colorEquals(tableau.peek()))){
+				return false;
 			}
+
+			tableau.appendStack(inUse); //Else we append the cards in use.
+			inUse.clear();
+			repaint(tableau);
+			flipLastStack();
+			return true;
 		}
 		return false;//If we have reached this point, then no action was performed
 	}
@@ -150,7 +152,7 @@ public class Yukon extends Klondike {
 		
 		int numOfNonEmptyTableaux = 0;
 		for(Tableau tableau : tableaux){ //Checks each tableau if it is suitable.
-			if(!Tableau.inSequence(tableau) || !Tableau.isVisible(tableau)){
+			if(tableau.sequenceRun() != tableau.size()){
 				//Then the tableau is not suitable,
 				return false;				  //the user has not won.
 			} else if(tableau.size() != 0){